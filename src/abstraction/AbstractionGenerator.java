@@ -0,0 +1,193 @@
+package abstraction;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.IntStream;
+
+import game_components.Cards;
+import game_components.Street;
+
+/**
+ * Builds a card abstraction for one street: every canonical hand is described by its equity distribution, 
+ * the hands are clustered into buckets with {@link KMeans}, and the result is written as a {@link BucketTable}. 
+ * 
+ * On the flop and turn a hand's feature is a histogram of its river equity (against a random hand) over 
+ * every runout. On the river it is just its equity, quantized to {@code bins} levels. 
+ * 
+ * All equities come from {@link RiverEquity}, which values every hole on a river board in one sorted sweep, 
+ * and the work is done a canonical board at a time so each river board is evaluated once per 
+ * board it completes rather than once per hand. Boards are processed in parallel. 
+ * 
+ * @author Patrick Wamsley
+ */
+public class AbstractionGenerator {
+
+	private final Street street; 
+	private final int bins; 
+
+	private final long[] boards; 
+	private final int[] offsets; 
+
+	private long[] keys; 
+	private short[] features; 
+
+	public AbstractionGenerator(Street street, int bins) {
+		if (bins < 2 || bins > Short.MAX_VALUE) 
+			throw new IllegalArgumentException("Need between 2 and " + Short.MAX_VALUE + " bins"); 
+		this.street = street; 
+		this.bins = bins; 
+		this.boards = CanonicalHands.boards(street); 
+
+		//offsets[b] is where board b's hands start in the flat key and feature arrays
+		this.offsets = new int[boards.length + 1]; 
+		int[] counts = IntStream.range(0, boards.length).parallel().map(b -> countHands(boards[b])).toArray(); 
+		for (int b = 0; b < boards.length; b++) 
+			offsets[b + 1] = offsets[b] + counts[b]; 
+	}
+
+	/**
+	 * Number of canonical hands on this street. 
+	 */
+	public int handCount() {
+		return offsets[boards.length]; 
+	}
+
+	/**
+	 * Computes every hand's feature, clusters them, and writes the bucket table. The table may have fewer 
+	 * than {@code buckets} buckets if the street has fewer distinct features than that. 
+	 */
+	public void generate(int buckets, int iterations, long seed, Path out) throws IOException {
+
+		computeFeatures(); 
+
+		short[] assignment = street == Street.RIVER 
+				? KMeans.clusterLevels(features, bins, buckets, iterations) 
+				: KMeans.clusterHistograms(features, bins, buckets, iterations, seed); 
+
+		//KMeans makes fewer buckets than asked for when there are fewer distinct features
+		int clusters = 0; 
+		for (short bucket : assignment) 
+			clusters = Math.max(clusters, bucket + 1); 
+		BucketTable.write(out, street, clusters, keys, assignment); 
+	}
+
+	void computeFeatures() {
+
+		int width = street == Street.RIVER ? 1 : bins; 
+		keys = new long[handCount()]; 
+		features = new short[handCount() * width]; 
+
+		ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(() -> new Scratch(street, bins)); 
+		IntStream.range(0, boards.length).parallel().forEach(b -> featuresForBoard(b, scratch.get())); 
+	}
+
+	private void featuresForBoard(int b, Scratch scratch) {
+
+		long board = boards[b]; 
+		int[] live = Cards.liveCards(board); 
+
+		//value every hole on every river this board can run out to
+		int runouts = 0; 
+		if (street == Street.RIVER) {
+			scratch.runouts[runouts] = 0L; 
+			scratch.equity.compute(board, scratch.tables, 0); 
+			runouts++; 
+		} else {
+			long end = 1L << live.length; 
+			for (long packed = Cards.firstSubset(street.cardsToCome()); packed < end; packed = Cards.nextSubset(packed)) {
+				long runout = Cards.expand(packed, live); 
+				scratch.runouts[runouts] = runout; 
+				scratch.equity.compute(board | runout, scratch.tables, runouts * Cards.HOLE_PAIRS); 
+				runouts++; 
+			}
+		}
+
+		int out = offsets[b]; 
+		for (int i = 0; i < live.length; i++) {
+			for (int j = i + 1; j < live.length; j++) {
+				long hole = 1L << live[i] | 1L << live[j]; 
+				if (!CanonicalHands.isCanonical(hole, board)) 
+					continue; 
+
+				int pair = Cards.pairIndex(live[i], live[j]); 
+				keys[out] = CanonicalHands.key(hole, board); 
+
+				if (street == Street.RIVER) {
+					features[out] = (short) bin(scratch.tables[pair]); 
+				} else {
+					int[] histogram = scratch.histogram; 
+					for (int r = 0; r < runouts; r++) 
+						if ((scratch.runouts[r] & hole) == 0) 
+							histogram[bin(scratch.tables[r * Cards.HOLE_PAIRS + pair])]++; 
+
+					int cumulative = 0; 
+					for (int bin = 0; bin < bins; bin++) {
+						cumulative += histogram[bin]; 
+						features[out * bins + bin] = (short) cumulative; 
+						histogram[bin] = 0; 
+					}
+				}
+				out++; 
+			}
+		}
+	}
+
+	private int bin(float equity) {
+		return Math.min(bins - 1, (int) (equity * bins)); 
+	}
+
+	private static int countHands(long board) {
+		int n = 0; 
+		int[] live = Cards.liveCards(board); 
+		for (int i = 0; i < live.length; i++) 
+			for (int j = i + 1; j < live.length; j++) 
+				if (CanonicalHands.isCanonical(1L << live[i] | 1L << live[j], board)) 
+					n++; 
+		return n; 
+	}
+
+	/**
+	 * Per-thread working space, sized for the most runouts a board of this street can have. 
+	 */
+	private static final class Scratch {
+
+		final RiverEquity equity = new RiverEquity(); 
+		final long[] runouts; 
+		final float[] tables; 
+		final int[] histogram; 
+
+		Scratch(Street street, int bins) {
+			int live = Cards.DECK_SIZE - street.boardCards; 
+			int maxRunouts = street == Street.FLOP ? live * (live - 1) / 2 : street == Street.TURN ? live : 1; 
+			runouts = new long[maxRunouts]; 
+			tables = new float[maxRunouts * Cards.HOLE_PAIRS]; 
+			histogram = new int[bins]; 
+		}
+	}
+
+	/**
+	 * Usage: {@code AbstractionGenerator <FLOP|TURN|RIVER> <buckets> <bins> <iterations> <output file> [seed]} 
+	 */
+	public static void main(String[] args) throws IOException {
+
+		if (args.length < 5) {
+			System.err.println("usage: AbstractionGenerator <FLOP|TURN|RIVER> <buckets> <bins> <iterations> <output file> [seed]"); 
+			System.exit(1); 
+		}
+
+		Street street = Street.valueOf(args[0].toUpperCase()); 
+		int buckets = Integer.parseInt(args[1]); 
+		int bins = Integer.parseInt(args[2]); 
+		int iterations = Integer.parseInt(args[3]); 
+		Path out = Paths.get(args[4]); 
+		long seed = args.length > 5 ? Long.parseLong(args[5]) : 0L; 
+
+		long start = System.nanoTime(); 
+		AbstractionGenerator generator = new AbstractionGenerator(street, bins); 
+		System.out.println(street + ": " + generator.handCount() + " canonical hands"); 
+
+		generator.generate(buckets, iterations, seed, out); 
+		System.out.printf("wrote %s in %.1fs%n", out, (System.nanoTime() - start) / 1e9); 
+	}
+}
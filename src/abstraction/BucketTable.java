@@ -0,0 +1,119 @@
+package abstraction;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import game_components.Street;
+
+/**
+ * A read-only, memory-mapped bucket lookup for one street, as written by {@link AbstractionGenerator}. 
+ * 
+ * File layout (big endian): a 24 byte header of {magic, version, board cards, bucket count, hand count, 0}, 
+ * the sorted canonical hand keys as {@code long}s, then each key's bucket as a {@code short}. 
+ * Lookups canonicalize the hand and binary search the mapped keys, so nothing is loaded onto the heap. 
+ * 
+ * @see CanonicalHands
+ * @author Patrick Wamsley
+ */
+public final class BucketTable {
+
+	static final int MAGIC = 0x4E4C4842, VERSION = 1, HEADER_BYTES = 24; 
+
+	public final Street street; 
+
+	public final int bucketCount; 
+
+	private final int size; 
+	private final LongBuffer keys; 
+	private final ShortBuffer buckets; 
+
+	private BucketTable(MappedByteBuffer mapped) throws IOException {
+
+		if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) 
+			throw new IOException("Not a version " + VERSION + " bucket table"); 
+
+		street = streetOf(mapped.getInt(8)); 
+		bucketCount = mapped.getInt(12); 
+		size = mapped.getInt(16); 
+
+		mapped.position(HEADER_BYTES); 
+		keys = mapped.slice().asLongBuffer(); 
+		mapped.position(HEADER_BYTES + size * Long.BYTES); 
+		buckets = mapped.slice().asShortBuffer(); 
+	}
+
+	public static BucketTable open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return new BucketTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())); 
+		}
+	}
+
+	/**
+	 * Returns the bucket of a hand, given its hole cards and board as card masks. 
+	 */
+	public int bucket(long hole, long board) {
+
+		if (Long.bitCount(board) != street.boardCards) 
+			throw new IllegalArgumentException("This table buckets " + street + " hands"); 
+
+		long key = CanonicalHands.canonicalKey(hole, board); 
+		int low = 0, high = size - 1; 
+		while (low <= high) {
+			int mid = (low + high) >>> 1; 
+			long probe = keys.get(mid); 
+			if (probe < key) 
+				low = mid + 1; 
+			else if (probe > key) 
+				high = mid - 1; 
+			else 
+				return buckets.get(mid); 
+		}
+		throw new IllegalArgumentException("Hand is not in the table; do the hole cards overlap the board?"); 
+	}
+
+	public int size() {
+		return size; 
+	}
+
+	/**
+	 * Writes a table; {@code buckets[i]} is the bucket of {@code keys[i]}, which need not be sorted. 
+	 */
+	public static void write(Path file, Street street, int bucketCount, long[] keys, short[] buckets) throws IOException {
+
+		long[] sortedKeys = keys.clone(); 
+		Arrays.parallelSort(sortedKeys); 
+		short[] sortedBuckets = new short[keys.length]; 
+		IntStream.range(0, keys.length).parallel()
+			.forEach(i -> sortedBuckets[Arrays.binarySearch(sortedKeys, keys[i])] = buckets[i]); 
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+			out.writeInt(MAGIC); 
+			out.writeInt(VERSION); 
+			out.writeInt(street.boardCards); 
+			out.writeInt(bucketCount); 
+			out.writeInt(keys.length); 
+			out.writeInt(0); 
+			for (long key : sortedKeys) 
+				out.writeLong(key); 
+			for (short bucket : sortedBuckets) 
+				out.writeShort(bucket); 
+		}
+	}
+
+	private static Street streetOf(int boardCards) throws IOException {
+		for (Street s : Street.values()) 
+			if (s.boardCards == boardCards) 
+				return s; 
+		throw new IOException("No street has " + boardCards + " board cards"); 
+	}
+}
@@ -0,0 +1,114 @@
+package abstraction;
+
+import game_components.Cards;
+import game_components.Street;
+
+/**
+ * Suit isomorphism for (hole cards, board) pairs. 
+ * 
+ * Boards are treated as unordered sets of cards, since bucketing only depends on which cards are out. 
+ * Two hands are isomorphic if a permutation of suits maps one onto the other. Each suit contributes a 
+ * 26 bit key (its board ranks above its hole ranks), and permuting suits only permutes these keys, so 
+ * a hand is canonical exactly when its suit keys are already in descending order. 
+ * 
+ * @author Patrick Wamsley
+ */
+public final class CanonicalHands {
+
+	private CanonicalHands() {}
+
+	/**
+	 * Packs a hand into a single {@code long}: {@code board << 12 | highCard << 6 | lowCard}. 
+	 * A 52 bit board and two 6 bit card indices fill the 64 bits exactly. 
+	 */
+	public static long key(long hole, long board) {
+		return board << 12 | (long) Cards.highestCard(hole) << 6 | Cards.lowestCard(hole); 
+	}
+
+	public static long board(long key) {
+		return key >>> 12; 
+	}
+
+	public static long hole(long key) {
+		return 1L << (key >>> 6 & 0x3F) | 1L << (key & 0x3F); 
+	}
+
+	/**
+	 * Returns the {@link #key(long, long)} of the canonical member of this hand's isomorphism class. 
+	 */
+	public static long canonicalKey(long hole, long board) {
+
+		int k0 = suitKey(hole, board, 0), k1 = suitKey(hole, board, 1), 
+				k2 = suitKey(hole, board, 2), k3 = suitKey(hole, board, 3), t; 
+
+		//sorting network, descending
+		if (k0 < k1) { t = k0; k0 = k1; k1 = t; }
+		if (k2 < k3) { t = k2; k2 = k3; k3 = t; }
+		if (k0 < k2) { t = k0; k0 = k2; k2 = t; }
+		if (k1 < k3) { t = k1; k1 = k3; k3 = t; }
+		if (k1 < k2) { t = k1; k1 = k2; k2 = t; }
+
+		long canonicalHole = holeRanks(k0, 0) | holeRanks(k1, 1) | holeRanks(k2, 2) | holeRanks(k3, 3); 
+		long canonicalBoard = boardRanks(k0, 0) | boardRanks(k1, 1) | boardRanks(k2, 2) | boardRanks(k3, 3); 
+
+		return key(canonicalHole, canonicalBoard); 
+	}
+
+	/**
+	 * Returns the canonical member of a board's isomorphism class, with no hole cards involved. 
+	 */
+	public static long canonicalBoard(long board) {
+
+		int s0 = Cards.suitRanks(board, 0), s1 = Cards.suitRanks(board, 1), 
+				s2 = Cards.suitRanks(board, 2), s3 = Cards.suitRanks(board, 3), t; 
+
+		if (s0 < s1) { t = s0; s0 = s1; s1 = t; }
+		if (s2 < s3) { t = s2; s2 = s3; s3 = t; }
+		if (s0 < s2) { t = s0; s0 = s2; s2 = t; }
+		if (s1 < s3) { t = s1; s1 = s3; s3 = t; }
+		if (s1 < s2) { t = s1; s1 = s2; s2 = t; }
+
+		return s0 | (long) s1 << 13 | (long) s2 << 26 | (long) s3 << 39; 
+	}
+
+	public static boolean isCanonical(long hole, long board) {
+		int k1 = suitKey(hole, board, 1), k2 = suitKey(hole, board, 2); 
+		return suitKey(hole, board, 0) >= k1 && k1 >= k2 && k2 >= suitKey(hole, board, 3); 
+	}
+
+	/**
+	 * Returns every canonical board of a street in increasing mask order. 
+	 * A board is canonical when its suits' rank masks are non-increasing, which is 
+	 * what {@link #isCanonical(long, long)} requires of the board half of each suit key. 
+	 */
+	public static long[] boards(Street street) {
+
+		long[] boards = new long[countBoards(street)]; 
+		int n = 0; 
+		for (long board = Cards.firstSubset(street.boardCards); board <= Cards.FULL_DECK; board = Cards.nextSubset(board)) 
+			if (isCanonical(0L, board)) 
+				boards[n++] = board; 
+
+		return boards; 
+	}
+
+	private static int countBoards(Street street) {
+		int n = 0; 
+		for (long board = Cards.firstSubset(street.boardCards); board <= Cards.FULL_DECK; board = Cards.nextSubset(board)) 
+			if (isCanonical(0L, board)) 
+				n++; 
+		return n; 
+	}
+
+	private static int suitKey(long hole, long board, int suit) {
+		return Cards.suitRanks(board, suit) << 13 | Cards.suitRanks(hole, suit); 
+	}
+
+	private static long holeRanks(int suitKey, int suit) {
+		return (long) (suitKey & 0x1FFF) << (13 * suit); 
+	}
+
+	private static long boardRanks(int suitKey, int suit) {
+		return (long) (suitKey >>> 13) << (13 * suit); 
+	}
+}
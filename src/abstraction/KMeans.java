@@ -0,0 +1,184 @@
+package abstraction;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * k-means clustering of hand features under earth mover's distance. 
+ * 
+ * Features are equity histograms stored as cumulative counts, since in one dimension the earth mover's 
+ * distance between two histograms is the L1 distance between their cumulative distributions. 
+ * Assignment steps run in parallel over fixed size chunks of hands, each chunk accumulating its 
+ * own centroid sums, which are merged before the update step. 
+ * 
+ * Buckets are relabelled so that bucket 0 holds the weakest hands. 
+ * 
+ * @author Patrick Wamsley
+ */
+final class KMeans {
+
+	private static final int CHUNK = 1 << 12; 
+
+	private KMeans() {}
+
+	/**
+	 * Clusters {@code cdfs.length / width} cumulative histograms into at most {@code k} buckets. 
+	 */
+	static short[] clusterHistograms(short[] cdfs, int width, int k, int iterations, long seed) {
+
+		int n = cdfs.length / width; 
+		k = Math.min(k, n); 
+		checkBucketCount(k); 
+
+		float[] centroids = new float[k * width]; 
+		int[] seeds = new Random(seed).ints(0, n).distinct().limit(k).toArray(); 
+		for (int c = 0; c < k; c++) 
+			for (int j = 0; j < width; j++) 
+				centroids[c * width + j] = cdfs[seeds[c] * width + j]; 
+
+		short[] assignment = new short[n]; 
+		Arrays.fill(assignment, (short) -1); 
+		int chunks = (n + CHUNK - 1) / CHUNK; 
+
+		for (int iteration = 0; iteration < iterations; iteration++) {
+			float[] current = centroids; 
+			int clusters = k; 
+			Step step = IntStream.range(0, chunks).parallel().collect(() -> new Step(clusters, width), 
+					(s, chunk) -> s.assign(cdfs, width, current, assignment, chunk * CHUNK, Math.min(n, (chunk + 1) * CHUNK)), 
+					Step::merge); 
+
+			for (int c = 0; c < k; c++) 
+				if (step.counts[c] > 0) 
+					for (int j = 0; j < width; j++) 
+						centroids[c * width + j] = (float) (step.sums[c * width + j] / step.counts[c]); 
+
+			if (step.changed == 0) 
+				break; 
+		}
+
+		//a larger cumulative sum means more mass in the low equity bins
+		double[] weakness = new double[k]; 
+		for (int c = 0; c < k; c++) 
+			for (int j = 0; j < width; j++) 
+				weakness[c] += centroids[c * width + j]; 
+
+		return relabel(assignment, IntStream.range(0, k).boxed()
+				.sorted((a, b) -> Double.compare(weakness[b], weakness[a]))
+				.mapToInt(Integer::intValue).toArray()); 
+	}
+
+	/**
+	 * Clusters scalar equity levels in 0..levelCount - 1 into at most {@code k} buckets. 
+	 * Only the weight of each level matters, so this runs in O(levelCount * k) per iteration 
+	 * no matter how many hands there are. 
+	 */
+	static short[] clusterLevels(short[] levels, int levelCount, int k, int iterations) {
+
+		long[] weights = new long[levelCount]; 
+		for (short level : levels) 
+			weights[level]++; 
+
+		int occupied = (int) Arrays.stream(weights).filter(w -> w > 0).count(); 
+		k = Math.min(k, occupied); 
+		checkBucketCount(k); 
+
+		//start from weighted quantiles
+		double[] centroids = new double[k]; 
+		long total = levels.length, seen = 0; 
+		for (int level = 0, c = 0; level < levelCount && c < k; level++) {
+			seen += weights[level]; 
+			while (c < k && seen * k >= (c + 0.5) * total) 
+				centroids[c++] = level; 
+		}
+
+		int[] bucketOfLevel = new int[levelCount]; 
+		for (int iteration = 0; iteration < iterations; iteration++) {
+			boolean changed = false; 
+			double[] sums = new double[k]; 
+			long[] counts = new long[k]; 
+			int c = 0; 
+			for (int level = 0; level < levelCount; level++) {
+				//centroids are ascending, so the nearest one never moves backwards
+				while (c + 1 < k && Math.abs(centroids[c + 1] - level) <= Math.abs(centroids[c] - level)) 
+					c++; 
+				changed |= bucketOfLevel[level] != c; 
+				bucketOfLevel[level] = c; 
+				sums[c] += (double) level * weights[level]; 
+				counts[c] += weights[level]; 
+			}
+			for (c = 0; c < k; c++) 
+				if (counts[c] > 0) 
+					centroids[c] = sums[c] / counts[c]; 
+			if (!changed && iteration > 0) 
+				break; 
+		}
+
+		short[] buckets = new short[levels.length]; 
+		IntStream.range(0, levels.length).parallel().forEach(i -> buckets[i] = (short) bucketOfLevel[levels[i]]); 
+		return buckets; 
+	}
+
+	private static short[] relabel(short[] assignment, int[] clusterByRank) {
+		short[] rankOfCluster = new short[clusterByRank.length]; 
+		for (int rank = 0; rank < clusterByRank.length; rank++) 
+			rankOfCluster[clusterByRank[rank]] = (short) rank; 
+		IntStream.range(0, assignment.length).parallel().forEach(i -> assignment[i] = rankOfCluster[assignment[i]]); 
+		return assignment; 
+	}
+
+	private static void checkBucketCount(int k) {
+		if (k < 1 || k > Short.MAX_VALUE) 
+			throw new IllegalArgumentException("Bucket count must be in 1.." + Short.MAX_VALUE + ", was " + k); 
+	}
+
+	/**
+	 * Per-thread accumulator for one assignment step. 
+	 */
+	private static final class Step {
+
+		final double[] sums; 
+		final long[] counts; 
+		long changed; 
+
+		Step(int k, int width) {
+			sums = new double[k * width]; 
+			counts = new long[k]; 
+		}
+
+		void assign(short[] cdfs, int width, float[] centroids, short[] assignment, int from, int to) {
+			int k = counts.length; 
+			for (int i = from; i < to; i++) {
+				int base = i * width; 
+				int best = 0; 
+				float bestDistance = Float.MAX_VALUE; 
+				for (int c = 0; c < k; c++) {
+					int centroid = c * width; 
+					float distance = 0f; 
+					//bail out as soon as this centroid can't win
+					for (int j = 0; j < width && distance < bestDistance; j++) 
+						distance += Math.abs(cdfs[base + j] - centroids[centroid + j]); 
+					if (distance < bestDistance) {
+						bestDistance = distance; 
+						best = c; 
+					}
+				}
+				if (assignment[i] != best) {
+					assignment[i] = (short) best; 
+					changed++; 
+				}
+				counts[best]++; 
+				for (int j = 0; j < width; j++) 
+					sums[best * width + j] += cdfs[base + j]; 
+			}
+		}
+
+		void merge(Step other) {
+			for (int i = 0; i < sums.length; i++) 
+				sums[i] += other.sums[i]; 
+			for (int c = 0; c < counts.length; c++) 
+				counts[c] += other.counts[c]; 
+			changed += other.changed; 
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package equity;
+
+import java.util.Random;
+
+import game_components.Cards;
+import game_components.HandEvaluator;
+import game_components.Ruleset;
+
+/**
+ * All-in showdown equity for hands and ranges, built on {@link HandEvaluator#evaluateStrength(long)}. 
+ * 
+ * Runouts are enumerated exhaustively except for range vs range before the flop, 
+ * where boards are sampled. 
+ * 
+ * @author Patrick Wamsley
+ */
+public final class EquityCalculator {
+
+	private EquityCalculator() {}
+
+	/**
+	 * Returns each player's share of the pot, averaged over every runout of {@code board}. 
+	 */
+	public static double[] equity(long[] holes, long board) {
+		return equity(holes, board, Ruleset.HOLDEM); 
+	}
+
+	/**
+	 * As {@link #equity(long[], long)}, dealing runouts from {@code rules}' deck and ranking hands by its rules. 
+	 */
+	public static double[] equity(long[] holes, long board, Ruleset rules) {
+
+		long outOfPlay = Cards.FULL_DECK & ~rules.deck; 
+		if ((board & outOfPlay) != 0) 
+			throw new IllegalArgumentException("The board has cards that aren't in the " + rules + " deck"); 
+
+		long dead = board; 
+		for (long hole : holes) {
+			if (Long.bitCount(hole) != 2 || (hole & dead) != 0 || (hole & outOfPlay) != 0) 
+				throw new IllegalArgumentException("Hands must be two " + rules + " cards, disjoint from each other and the board"); 
+			dead |= hole; 
+		}
+
+		int toCome = 5 - Long.bitCount(board); 
+		if (toCome < 0) 
+			throw new IllegalArgumentException("Boards have at most 5 cards"); 
+
+		int[] live = Cards.liveCards(dead | outOfPlay); 
+		double[] shares = new double[holes.length]; 
+		int[] strengths = new int[holes.length]; 
+		long runouts = 0; 
+
+		long end = 1L << live.length; 
+		for (long packed = Cards.firstSubset(toCome); packed < end; packed = toCome == 0 ? end : Cards.nextSubset(packed)) {
+			long full = board | Cards.expand(packed, live); 
+
+			int best = Integer.MIN_VALUE, winners = 0; 
+			for (int p = 0; p < holes.length; p++) {
+				strengths[p] = rules.evaluate(full | holes[p]); 
+				if (strengths[p] > best) {
+					best = strengths[p]; 
+					winners = 1; 
+				} else if (strengths[p] == best) {
+					winners++; 
+				}
+			}
+			for (int p = 0; p < holes.length; p++) 
+				if (strengths[p] == best) 
+					shares[p] += 1.0 / winners; 
+			runouts++; 
+		}
+
+		for (int p = 0; p < shares.length; p++) 
+			shares[p] /= runouts; 
+		return shares; 
+	}
+
+	/**
+	 * Returns the fractions of runouts of {@code board} on which {@code hero} wins, ties and loses 
+	 * against {@code villain}, in that order. 
+	 */
+	public static double[] outcomes(long hero, long villain, long board) {
+
+		if (Long.bitCount(hero) != 2 || Long.bitCount(villain) != 2 || ((hero | villain) & board) != 0 || (hero & villain) != 0) 
+			throw new IllegalArgumentException("Hands must be two cards, disjoint from each other and the board"); 
+
+		int toCome = 5 - Long.bitCount(board); 
+		int[] live = Cards.liveCards(board | hero | villain); 
+		long wins = 0, ties = 0, runouts = 0; 
+
+		long end = 1L << live.length; 
+		for (long packed = Cards.firstSubset(toCome); packed < end; packed = toCome == 0 ? end : Cards.nextSubset(packed)) {
+			long full = board | Cards.expand(packed, live); 
+			int delta = HandEvaluator.evaluateStrength(full | hero) - HandEvaluator.evaluateStrength(full | villain); 
+			if (delta > 0) 
+				wins++; 
+			else if (delta == 0) 
+				ties++; 
+			runouts++; 
+		}
+		return new double[] {(double) wins / runouts, (double) ties / runouts, (double) (runouts - wins - ties) / runouts}; 
+	}
+
+	/**
+	 * Returns {@code hero}'s equity against {@code villain}, weighting every non-conflicting pair of combos 
+	 * by the product of their weights. Each board is valued with a {@link RangeShowdown} sweep. 
+	 * With fewer than 3 board cards, {@code samples} random boards are drawn from {@code seed} 
+	 * instead of enumerating runouts. 
+	 */
+	public static double rangeEquity(Range hero, Range villain, long board, int samples, long seed) {
+
+		hero = hero.without(board); 
+		villain = villain.without(board); 
+		int toCome = 5 - Long.bitCount(board); 
+		RangeShowdown showdown = new RangeShowdown(hero, villain); 
+
+		if (toCome <= 2) {
+			int[] live = Cards.liveCards(board); 
+			long end = 1L << live.length; 
+			for (long packed = Cards.firstSubset(toCome); packed < end; packed = toCome == 0 ? end : Cards.nextSubset(packed)) 
+				showdown.add(board | Cards.expand(packed, live)); 
+		} else {
+			Random random = new Random(seed); 
+			for (int s = 0; s < samples; s++) {
+				long full = board; 
+				while (Long.bitCount(full) < 5) 
+					full |= 1L << random.nextInt(Cards.DECK_SIZE); 
+				showdown.add(full); 
+			}
+		}
+		double[] totals = showdown.heroTotals(); 
+		if (totals[1] == 0) 
+			throw new IllegalArgumentException("The ranges have no non-conflicting combos"); 
+		return totals[0] / totals[1]; 
+	}
+}
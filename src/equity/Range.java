@@ -0,0 +1,176 @@
+package equity;
+
+import java.util.Arrays;
+
+import game_components.Cards;
+
+/**
+ * A weighted set of hole card combinations. 
+ * 
+ * Ranges are written as comma separated tokens: specific hands ({@code AsKd}), pairs ({@code QQ}), 
+ * suited, offsuit or any-suit hands ({@code AKs}, {@code AKo}, {@code AK}), and {@code +} ranges 
+ * ({@code TT+} for TT through AA, {@code ATs+} for ATs through AKs). Any token may end with 
+ * {@code :weight} to include its combos at that frequency. Later tokens overwrite earlier ones. 
+ * 
+ * @author Patrick Wamsley
+ */
+public final class Range {
+
+	private static final String RANKS = "23456789TJQKA"; 
+
+	/** Combo masks, in increasing pair index order. */
+	private final long[] combos; 
+	private final float[] weights; 
+
+	private Range(long[] combos, float[] weights) {
+		this.combos = combos; 
+		this.weights = weights; 
+	}
+
+	public static Range parse(String text) {
+
+		float[] byPair = new float[Cards.HOLE_PAIRS]; 
+		for (String token : text.split(",")) {
+			token = token.trim(); 
+			if (token.isEmpty()) 
+				continue; 
+
+			float weight = 1f; 
+			int colon = token.indexOf(':'); 
+			if (colon >= 0) {
+				weight = Float.parseFloat(token.substring(colon + 1)); 
+				token = token.substring(0, colon); 
+			}
+			if (weight < 0f || weight > 1f) 
+				throw new IllegalArgumentException("Weights are frequencies in [0, 1]: " + token); 
+
+			for (long combo : expand(token)) 
+				byPair[Cards.pairIndex(combo)] = weight; 
+		}
+		return fromWeights(byPair); 
+	}
+
+	/**
+	 * Builds a range from a weight per pair index, dropping zero weights. 
+	 */
+	public static Range fromWeights(float[] byPair) {
+		int n = 0; 
+		for (float w : byPair) 
+			if (w > 0f) 
+				n++; 
+
+		long[] combos = new long[n]; 
+		float[] weights = new float[n]; 
+		n = 0; 
+		for (int pair = 0; pair < byPair.length; pair++) {
+			if (byPair[pair] > 0f) {
+				combos[n] = Cards.pairMask(pair); 
+				weights[n++] = byPair[pair]; 
+			}
+		}
+		return new Range(combos, weights); 
+	}
+
+	/**
+	 * Returns a range of exactly these combos, at full weight. 
+	 */
+	public static Range of(long... combos) {
+		float[] byPair = new float[Cards.HOLE_PAIRS]; 
+		for (long combo : combos) 
+			byPair[Cards.pairIndex(combo)] = 1f; 
+		return fromWeights(byPair); 
+	}
+
+	/**
+	 * Returns every combo, each at full weight. 
+	 */
+	public static Range all() {
+		float[] byPair = new float[Cards.HOLE_PAIRS]; 
+		Arrays.fill(byPair, 1f); 
+		return fromWeights(byPair); 
+	}
+
+	public int size() {
+		return combos.length; 
+	}
+
+	public long combo(int i) {
+		return combos[i]; 
+	}
+
+	public float weight(int i) {
+		return weights[i]; 
+	}
+
+	/**
+	 * Returns this range without the combos that use any card of {@code dead}. 
+	 */
+	public Range without(long dead) {
+		float[] byPair = new float[Cards.HOLE_PAIRS]; 
+		for (int i = 0; i < combos.length; i++) 
+			if ((combos[i] & dead) == 0) 
+				byPair[Cards.pairIndex(combos[i])] = weights[i]; 
+		return fromWeights(byPair); 
+	}
+
+	private static long[] expand(String token) {
+
+		boolean plus = token.endsWith("+"); 
+		if (token.length() == 4 && !plus) 
+			return new long[] {Cards.parse(token)}; 
+
+		if (plus) 
+			token = token.substring(0, token.length() - 1); 
+
+		if (token.length() < 2 || token.length() > 3) 
+			throw new IllegalArgumentException("Not a range token: " + token); 
+
+		int high = rank(token.charAt(0)), low = rank(token.charAt(1)); 
+		char suitedness = token.length() == 3 ? Character.toLowerCase(token.charAt(2)) : 'a'; 
+		if (suitedness != 's' && suitedness != 'o' && suitedness != 'a') 
+			throw new IllegalArgumentException("Expected s or o after " + token.substring(0, 2)); 
+		if (low > high) {
+			int t = low; 
+			low = high; 
+			high = t; 
+		}
+
+		long[] out = new long[0]; 
+		if (high == low) {
+			if (suitedness != 'a') 
+				throw new IllegalArgumentException("Pairs can't be suited or offsuit: " + token); 
+			for (int r = low; r <= (plus ? RANKS.length() - 1 : low); r++) 
+				out = concat(out, combos(r, r, 'a')); 
+		} else {
+			for (int r = low; r <= (plus ? high - 1 : low); r++) 
+				out = concat(out, combos(high, r, suitedness)); 
+		}
+		return out; 
+	}
+
+	private static long[] combos(int high, int low, char suitedness) {
+		long[] out = new long[16]; 
+		int n = 0; 
+		for (int s1 = 0; s1 < 4; s1++) {
+			for (int s2 = 0; s2 < 4; s2++) {
+				if (high == low ? s2 <= s1 : (suitedness == 's' && s1 != s2) || (suitedness == 'o' && s1 == s2)) 
+					continue; 
+				out[n++] = 1L << (s1 * 13 + high) | 1L << (s2 * 13 + low); 
+			}
+		}
+		return Arrays.copyOf(out, n); 
+	}
+
+	private static int rank(char c) {
+		int r = RANKS.indexOf(Character.toUpperCase(c)); 
+		if (r < 0) 
+			throw new IllegalArgumentException("Not a rank: " + c); 
+		return r; 
+	}
+
+	private static long[] concat(long[] a, long[] b) {
+		long[] out = Arrays.copyOf(a, a.length + b.length); 
+		System.arraycopy(b, 0, out, a.length, b.length); 
+		return out; 
+	}
+}
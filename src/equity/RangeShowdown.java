@@ -0,0 +1,246 @@
+package equity;
+
+import java.util.Arrays;
+
+import game_components.Cards;
+import game_components.HandEvaluator;
+
+/**
+ * Heads-up showdown values of two ranges on a turn or river board. 
+ * 
+ * Comparing every hero combo with every villain combo is O(n&sup2;) per board. Instead, each combo of 
+ * both ranges is evaluated once, each range is sorted by packed strength, and one merged sweep finds, 
+ * for every combo, the opposing weight it beats and ties. Card removal is corrected with per-card 
+ * running weights: the opposing combos that share a card with {@code c1c2} are those holding {@code c1} 
+ * plus those holding {@code c2}, less the identical combo, which was counted twice. This makes each 
+ * river board O(n log n). Turn boards are the sum of their 48 rivers. 
+ * 
+ * @author Patrick Wamsley
+ */
+public final class RangeShowdown {
+
+	private static final int PAIR_BITS = 11, PAIR_MASK = (1 << PAIR_BITS) - 1; 
+
+	public final Range hero, villain; 
+
+	//opposing weight each combo beats, ties, and faces in total, summed over boards
+	private final double[] heroWin, heroTie, heroFaced; 
+	private final double[] villainWin, villainTie, villainFaced; 
+
+	private final long[] heroSorted, villainSorted; 
+	private final double[] byPair = new double[Cards.HOLE_PAIRS]; 
+	private final double[] byCard = new double[Cards.DECK_SIZE], below = new double[Cards.DECK_SIZE], 
+			level = new double[Cards.DECK_SIZE]; 
+
+	RangeShowdown(Range hero, Range villain) {
+		this.hero = hero; 
+		this.villain = villain; 
+		heroWin = new double[hero.size()]; 
+		heroTie = new double[hero.size()]; 
+		heroFaced = new double[hero.size()]; 
+		villainWin = new double[villain.size()]; 
+		villainTie = new double[villain.size()]; 
+		villainFaced = new double[villain.size()]; 
+		heroSorted = new long[hero.size()]; 
+		villainSorted = new long[villain.size()]; 
+	}
+
+	/**
+	 * Values both ranges on a 4 card (every river is dealt) or 5 card board. 
+	 */
+	public static RangeShowdown of(Range hero, Range villain, long board) {
+
+		RangeShowdown showdown = new RangeShowdown(hero, villain); 
+		int cards = Long.bitCount(board); 
+		if (cards == 5) {
+			showdown.add(board); 
+		} else if (cards == 4) {
+			for (int river = 0; river < Cards.DECK_SIZE; river++) 
+				if ((board & 1L << river) == 0) 
+					showdown.add(board | 1L << river); 
+		} else {
+			throw new IllegalArgumentException("Showdowns are valued on the turn or river"); 
+		}
+		return showdown; 
+	}
+
+	/**
+	 * Accumulates one complete 5 card board. Combos that collide with the board are skipped. 
+	 */
+	void add(long board) {
+		int heroLive = sort(hero, board, heroSorted); 
+		int villainLive = sort(villain, board, villainSorted); 
+		sweep(heroSorted, heroLive, hero, villainSorted, villainLive, villain, heroWin, heroTie, heroFaced); 
+		sweep(villainSorted, villainLive, villain, heroSorted, heroLive, hero, villainWin, villainTie, villainFaced); 
+	}
+
+	/**
+	 * Returns hero combo {@code i}'s share of the pot against villain's range. 
+	 */
+	public double heroEquity(int i) {
+		return (heroWin[i] + heroTie[i] / 2) / heroFaced[i]; 
+	}
+
+	public double villainEquity(int j) {
+		return (villainWin[j] + villainTie[j] / 2) / villainFaced[j]; 
+	}
+
+	/**
+	 * Fraction of the opposing weight hero combo {@code i} beats, ties and loses to, in that order. 
+	 */
+	public double[] heroOutcomes(int i) {
+		return outcomes(heroWin[i], heroTie[i], heroFaced[i]); 
+	}
+
+	public double[] villainOutcomes(int j) {
+		return outcomes(villainWin[j], villainTie[j], villainFaced[j]); 
+	}
+
+	/**
+	 * Returns hero's equity against villain's range, weighting each combo by its range weight 
+	 * and the villain weight it faces. 
+	 */
+	public double heroEquity() {
+		return rangeEquity(hero, heroWin, heroTie, heroFaced); 
+	}
+
+	public double villainEquity() {
+		return rangeEquity(villain, villainWin, villainTie, villainFaced); 
+	}
+
+	/**
+	 * Returns the expected value, in chips, of hero's best response to villain betting {@code bet} into 
+	 * {@code pot} with their whole range: each hero combo calls if that beats folding. 
+	 * Values count from the moment before the bet, so folding is worth 0. 
+	 */
+	public double bestResponseToBet(double pot, double bet) {
+		double value = 0, weight = 0; 
+		for (int i = 0; i < hero.size(); i++) {
+			if (heroFaced[i] == 0) 
+				continue; 
+			double callValue = heroEquity(i) * (pot + 2 * bet) - bet; 
+			value += hero.weight(i) * Math.max(0, callValue); 
+			weight += hero.weight(i); 
+		}
+		return value / weight; 
+	}
+
+	/**
+	 * Returns hero's share of the combined weight among both ranges' combos whose 
+	 * equity against the other range is at least {@code threshold}, e.g. 0.9 for near-nut hands. 
+	 * Above 0.5 means hero holds more of the strong hands. 
+	 */
+	public double heroNutShare(double threshold) {
+		double heroNuts = 0, villainNuts = 0; 
+		for (int i = 0; i < hero.size(); i++) 
+			if (heroFaced[i] > 0 && heroEquity(i) >= threshold) 
+				heroNuts += hero.weight(i); 
+		for (int j = 0; j < villain.size(); j++) 
+			if (villainFaced[j] > 0 && villainEquity(j) >= threshold) 
+				villainNuts += villain.weight(j); 
+		return heroNuts + villainNuts == 0 ? 0.5 : heroNuts / (heroNuts + villainNuts); 
+	}
+
+	/**
+	 * Weighted sum of wins and half ties, and of opposing weight faced, for use by {@link EquityCalculator}. 
+	 */
+	double[] heroTotals() {
+		double won = 0, faced = 0; 
+		for (int i = 0; i < hero.size(); i++) {
+			won += hero.weight(i) * (heroWin[i] + heroTie[i] / 2); 
+			faced += hero.weight(i) * heroFaced[i]; 
+		}
+		return new double[] {won, faced}; 
+	}
+
+	/**
+	 * Fills {@code sorted} with {@code strength << 11 | combo} for each combo clear of the board, 
+	 * ascending, and returns how many there are. 
+	 */
+	private static int sort(Range range, long board, long[] sorted) {
+		int n = 0; 
+		for (int i = 0; i < range.size(); i++) 
+			if ((range.combo(i) & board) == 0) 
+				sorted[n++] = (long) HandEvaluator.evaluateStrength(board | range.combo(i)) << PAIR_BITS | i; 
+		Arrays.sort(sorted, 0, n); 
+		return n; 
+	}
+
+	/**
+	 * Credits each subject combo with the opposing weight below, level with, and compatible with it. 
+	 */
+	private void sweep(long[] subject, int n, Range subjectRange, long[] opposing, int m, Range opposingRange, 
+			double[] win, double[] tie, double[] faced) {
+
+		double total = 0; 
+		for (int k = 0; k < m; k++) {
+			int combo = (int) opposing[k] & PAIR_MASK; 
+			long cards = opposingRange.combo(combo); 
+			double w = opposingRange.weight(combo); 
+			byPair[Cards.pairIndex(cards)] = w; 
+			byCard[Cards.lowestCard(cards)] += w; 
+			byCard[Cards.highestCard(cards)] += w; 
+			total += w; 
+		}
+
+		double belowTotal = 0; 
+		int j = 0, i = 0; 
+		while (i < n) {
+			long strength = subject[i] >>> PAIR_BITS; 
+
+			for (; j < m && opposing[j] >>> PAIR_BITS < strength; j++) {
+				int combo = (int) opposing[j] & PAIR_MASK; 
+				double w = opposingRange.weight(combo); 
+				below[Cards.lowestCard(opposingRange.combo(combo))] += w; 
+				below[Cards.highestCard(opposingRange.combo(combo))] += w; 
+				belowTotal += w; 
+			}
+
+			double levelTotal = 0; 
+			int g = j; 
+			for (; g < m && opposing[g] >>> PAIR_BITS == strength; g++) {
+				int combo = (int) opposing[g] & PAIR_MASK; 
+				double w = opposingRange.weight(combo); 
+				level[Cards.lowestCard(opposingRange.combo(combo))] += w; 
+				level[Cards.highestCard(opposingRange.combo(combo))] += w; 
+				levelTotal += w; 
+			}
+
+			for (; i < n && subject[i] >>> PAIR_BITS == strength; i++) {
+				int combo = (int) subject[i] & PAIR_MASK; 
+				long cards = subjectRange.combo(combo); 
+				int low = Cards.lowestCard(cards), high = Cards.highestCard(cards); 
+				double same = byPair[Cards.pairIndex(cards)]; 
+
+				//an identical opposing combo ties, so it is never below
+				win[combo] += belowTotal - below[low] - below[high]; 
+				tie[combo] += levelTotal - level[low] - level[high] + same; 
+				faced[combo] += total - byCard[low] - byCard[high] + same; 
+			}
+
+			for (int k = j; k < g; k++) {
+				long cards = opposingRange.combo((int) opposing[k] & PAIR_MASK); 
+				level[Cards.lowestCard(cards)] = 0; 
+				level[Cards.highestCard(cards)] = 0; 
+			}
+		}
+
+		for (int k = 0; k < m; k++) 
+			byPair[Cards.pairIndex(opposingRange.combo((int) opposing[k] & PAIR_MASK))] = 0; 
+		Arrays.fill(byCard, 0); 
+		Arrays.fill(below, 0); 
+	}
+
+	private static double[] outcomes(double win, double tie, double faced) {
+		return new double[] {win / faced, tie / faced, (faced - win - tie) / faced}; 
+	}
+
+	private static double rangeEquity(Range range, double[] win, double[] tie, double[] faced) {
+		double won = 0, total = 0; 
+		for (int i = 0; i < range.size(); i++) {
+			won += range.weight(i) * (win[i] + tie[i] / 2); 
+			total += range.weight(i) * faced[i]; 
+		}
+		return won / total; 
+	}
+}
@@ -32,11 +32,51 @@ public class Card implements Comparable<Card> {
 	
 	public final int rank; 
 	
+	/**
+	 * Every real card, indexed by {@link #index()}. 
+	 */
+	private static final Card[] DECK = new Card[52]; 
+
+	static {
+		for (Suit s : Suit.values())
+			for (int rank = TWO; rank <= ACE; rank++)
+				DECK[s.ordinal() * 13 + rank - TWO] = new Card(s, rank); 
+	}
+
 	public Card(Suit suit, int rank) {
 		this.suit = suit;
 		this.rank = rank; 
 	}
 
+	/**
+	 * Returns this card's index in 0..51, laid out as {@code suit * 13 + (rank - 2)} so that 
+	 * each suit occupies its own 13 bit run of a card mask. 
+	 * 
+	 * @throws IllegalStateException for placeholder cards such as {@link #BLUE_EYES_WHITE_DRAGON}, whose 
+	 * rank is outside 2..14 and would otherwise alias a real card 
+	 */
+	public int index() {
+		if (rank < TWO || rank > ACE) 
+			throw new IllegalStateException(this + " is not a real card"); 
+		return suit.ordinal() * 13 + rank - TWO; 
+	}
+
+	/**
+	 * Returns this card as a single bit of a 52 bit card mask. 
+	 * 
+	 * @see #index()
+	 */
+	public long mask() {
+		return 1L << index(); 
+	}
+
+	/**
+	 * Returns the shared {@code Card} for an index produced by {@link #index()}. 
+	 */
+	public static Card fromIndex(int index) {
+		return DECK[index]; 
+	}
+
 	@Override
 	public int compareTo(Card other) {
 		return other.rank - this.rank; 
@@ -0,0 +1,154 @@
+package game_components;
+
+/**
+ * Static helpers for card masks (see {@link Card#mask()}) and the 1,326 two card hole pairs. 
+ * 
+ * @author Patrick Wamsley
+ */
+public final class Cards {
+
+	public static final int DECK_SIZE = 52; 
+
+	public static final int HOLE_PAIRS = DECK_SIZE * (DECK_SIZE - 1) / 2; 
+
+	public static final long FULL_DECK = (1L << DECK_SIZE) - 1; 
+
+	private static final int[] PAIR_INDEX = new int[DECK_SIZE * DECK_SIZE]; 
+	private static final long[] PAIR_MASK = new long[HOLE_PAIRS]; 
+
+	static {
+		int pair = 0; 
+		for (int high = 1; high < DECK_SIZE; high++) {
+			for (int low = 0; low < high; low++) {
+				PAIR_INDEX[high * DECK_SIZE + low] = pair; 
+				PAIR_INDEX[low * DECK_SIZE + high] = pair; 
+				PAIR_MASK[pair] = 1L << high | 1L << low; 
+				pair++; 
+			}
+		}
+	}
+
+	private static final String RANKS = "23456789TJQKA", SUITS = "hdsc"; 
+
+	private Cards() {}
+
+	/**
+	 * Parses cards written as rank then suit, e.g. {@code "AsKd"} or {@code "Ts 9h 2c"}, into a card mask. 
+	 * Ranks are {@code 23456789TJQKA} and suits {@code hdsc}, in {@link Card.Suit} order. 
+	 */
+	public static long parse(String text) {
+
+		long mask = 0L; 
+		String cards = text.replaceAll("[\\s,]", ""); 
+		if (cards.length() % 2 != 0) 
+			throw new IllegalArgumentException("Cards come in rank-suit pairs: " + text); 
+
+		for (int i = 0; i < cards.length(); i += 2) {
+			long card = 1L << parseCard(cards.charAt(i), cards.charAt(i + 1)); 
+			if ((mask & card) != 0) 
+				throw new IllegalArgumentException("Duplicate card in " + text); 
+			mask |= card; 
+		}
+		return mask; 
+	}
+
+	static int parseCard(char rank, char suit) {
+		int r = RANKS.indexOf(Character.toUpperCase(rank)), s = SUITS.indexOf(Character.toLowerCase(suit)); 
+		if (r < 0 || s < 0) 
+			throw new IllegalArgumentException("Not a card: " + rank + suit); 
+		return s * 13 + r; 
+	}
+
+	/**
+	 * Inverse of {@link #parse(String)}, lowest card index first. 
+	 */
+	public static String toString(long mask) {
+		StringBuilder sb = new StringBuilder(); 
+		for (long m = mask; m != 0; m &= m - 1) {
+			int card = Long.numberOfTrailingZeros(m); 
+			sb.append(RANKS.charAt(card % 13)).append(SUITS.charAt(card / 13)); 
+		}
+		return sb.toString(); 
+	}
+
+	/**
+	 * Returns the index in 0..1325 of the hole pair made of two distinct card indices, in either order. 
+	 */
+	public static int pairIndex(int card1, int card2) {
+		return PAIR_INDEX[card1 * DECK_SIZE + card2]; 
+	}
+
+	/**
+	 * Returns the index of a hole pair given as a two card mask. 
+	 */
+	public static int pairIndex(long pairMask) {
+		return pairIndex(lowestCard(pairMask), highestCard(pairMask)); 
+	}
+
+	public static long pairMask(int pairIndex) {
+		return PAIR_MASK[pairIndex]; 
+	}
+
+	public static int lowestCard(long mask) {
+		return Long.numberOfTrailingZeros(mask); 
+	}
+
+	public static int highestCard(long mask) {
+		return 63 - Long.numberOfLeadingZeros(mask); 
+	}
+
+	public static int count(long mask) {
+		return Long.bitCount(mask); 
+	}
+
+	/**
+	 * Returns the 13 bit rank mask (bit 0 = deuce) of one suit's cards. 
+	 */
+	public static int suitRanks(long mask, int suit) {
+		return (int) (mask >>> (13 * suit)) & 0x1FFF; 
+	}
+
+	/**
+	 * Returns the next larger mask with the same number of cards (Gosper's hack), 
+	 * which walks every {@code k} card subset of the deck in increasing order. 
+	 * Returns a mask past {@link #FULL_DECK} once the subsets are exhausted. 
+	 */
+	public static long nextSubset(long mask) {
+		long lowest = mask & -mask; 
+		long ripple = mask + lowest; 
+		return ripple | ((mask ^ ripple) >>> 2) / lowest; 
+	}
+
+	/**
+	 * Returns the smallest mask of {@code k} cards. 
+	 */
+	public static long firstSubset(int k) {
+		return (1L << k) - 1; 
+	}
+
+	/**
+	 * Packs the cards of {@code deck} outside {@code dead} down into the low bits, so that 
+	 * subsets of the remaining cards can be walked with {@link #nextSubset(long)}. 
+	 * Returns the card index that each packed bit stands for. 
+	 */
+	public static int[] liveCards(long dead) {
+		int[] live = new int[DECK_SIZE - count(dead & FULL_DECK)]; 
+		int n = 0; 
+		for (int card = 0; card < DECK_SIZE; card++) 
+			if ((dead & 1L << card) == 0) 
+				live[n++] = card; 
+		return live; 
+	}
+
+	/**
+	 * Expands a packed subset produced over {@link #liveCards(long)} back into a card mask. 
+	 */
+	public static long expand(long packed, int[] live) {
+		long mask = 0L; 
+		while (packed != 0) {
+			mask |= 1L << live[Long.numberOfTrailingZeros(packed)]; 
+			packed &= packed - 1; 
+		}
+		return mask; 
+	}
+}
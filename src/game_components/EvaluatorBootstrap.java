@@ -0,0 +1,181 @@
+package game_components;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+
+import game_components.HandEvaluator.HandType;
+
+/**
+ * Gets a short lived JVM evaluating at full speed as soon as possible: {@link #initialize()} builds every 
+ * ruleset's lookup tables up front, and {@link #warmup()} runs every {@code HandType} through each 
+ * evaluation path until the JIT has compiled them. {@link #main(String[])} measures how long a cold JVM 
+ * takes to get through its first million evaluations, with or without the warmup. 
+ * 
+ * Class loading can be cut further with an AppCDS archive, recorded by a training run of this class. 
+ * The classes have to come from a jar for the JVM to archive them. On JDK 13 and later: 
+ * <pre>
+ * java -XX:ArchiveClassesAtExit=evaluator.jsa -cp poker.jar game_components.EvaluatorBootstrap --warmup
+ * java -XX:SharedArchiveFile=evaluator.jsa -cp poker.jar ...
+ * </pre>
+ * On JDK 10 to 12, dump the class list with {@code -XX:DumpLoadedClassList=evaluator.classlist} instead, build the 
+ * archive with {@code -Xshare:dump -XX:SharedClassListFile=evaluator.classlist -XX:SharedArchiveFile=evaluator.jsa}, 
+ * and run with {@code -XX:SharedArchiveFile=evaluator.jsa}. JDK 8 only has AppCDS as an Oracle commercial feature 
+ * ({@code -XX:+UnlockCommercialFeatures -XX:+UseAppCDS}), and the same steps apply there. 
+ * 
+ * @author Patrick Wamsley
+ */
+public final class EvaluatorBootstrap {
+
+	/** enough calls for each evaluation path to reach the JIT's top tier */
+	private static final int WARMUP_ROUNDS = 20_000; 
+
+	private static final Sample[] SAMPLES = {
+		new Sample(Ruleset.HOLDEM, HandType.STRAIGHT_FLUSH, "9h8h7h6h5h2c3d"), 
+		new Sample(Ruleset.HOLDEM, HandType.STRAIGHT_FLUSH, "Ah2h3h4h5hKsQd"), 
+		new Sample(Ruleset.HOLDEM, HandType.QUADS, "AsAhAdAcKs2d3h"), 
+		new Sample(Ruleset.HOLDEM, HandType.FULL_HOUSE, "KsKhKdQcQs2d3h"), 
+		new Sample(Ruleset.HOLDEM, HandType.FULL_HOUSE, "KsKhKd5c5s5d3h"), 
+		new Sample(Ruleset.HOLDEM, HandType.FLUSH, "Ah9h7h4h2hKsQd"), 
+		new Sample(Ruleset.HOLDEM, HandType.STRAIGHT, "Ts9h8d7c6s2d2h"), 
+		new Sample(Ruleset.HOLDEM, HandType.STRAIGHT, "As2h3d4c5sKdQh"), 
+		new Sample(Ruleset.HOLDEM, HandType.TRIPS, "7s7h7dKc2s9d4h"), 
+		new Sample(Ruleset.HOLDEM, HandType.TWO_PAIR, "JsJh4d4c2s2dAh"), 
+		new Sample(Ruleset.HOLDEM, HandType.PAIR, "QsQh9d7c4s3d2h"), 
+		new Sample(Ruleset.HOLDEM, HandType.HIGH_CARD, "AsJh9d7c5s3d2h"), 
+
+		new Sample(Ruleset.SHORT_DECK, HandType.STRAIGHT_FLUSH, "Ah6h7h8h9hKsQd"), 
+		new Sample(Ruleset.SHORT_DECK, HandType.QUADS, "AsAhAdAcKs6d7h"), 
+		new Sample(Ruleset.SHORT_DECK, HandType.FULL_HOUSE, "KsKhKdQcQs6d7h"), 
+		new Sample(Ruleset.SHORT_DECK, HandType.FLUSH, "AhJh9h7h6hKsQd"), 
+		new Sample(Ruleset.SHORT_DECK, HandType.STRAIGHT, "As6h7d8c9sKdQh"), 
+		new Sample(Ruleset.SHORT_DECK, HandType.TRIPS, "7s7h7dKcAsTd9h"), 
+		new Sample(Ruleset.SHORT_DECK, HandType.TWO_PAIR, "JsJh8d8c6s6dAh"), 
+		new Sample(Ruleset.SHORT_DECK, HandType.PAIR, "QsQh9d7c6sAdKh"), 
+		new Sample(Ruleset.SHORT_DECK, HandType.HIGH_CARD, "AsJh9d8c6sKdQh"), 
+	}; 
+
+	private static volatile long sink; 
+
+	private EvaluatorBootstrap() {}
+
+	/**
+	 * Loads the evaluator's classes and builds every ruleset's tables now rather than on first use, and 
+	 * checks each {@code HandType} is recognized. Cheap to call again. 
+	 * 
+	 * @throws IllegalStateException if a sample hand evaluates to the wrong category 
+	 */
+	public static void initialize() {
+		for (Sample s : SAMPLES) {
+			HandType found = s.rules.category(s.cards); 
+			if (found != s.type || s.rules.handType(s.rules.evaluate(s.cards)) != s.type) 
+				throw new IllegalStateException(s.rules + " evaluates " + Cards.toString(s.cards) + " as " + found + ", not " + s.type); 
+		}
+	}
+
+	/**
+	 * Runs every {@code HandType}, plus random hands so branch profiles look like real play, through the 
+	 * packed, category and showdown paths of each ruleset and the {@link HandEvaluator} entry points built on them. 
+	 * 
+	 * @return how long it took, in nanoseconds 
+	 */
+	public static long warmup() {
+
+		long start = System.nanoTime(); 
+		initialize(); 
+
+		SplittableRandom random = new SplittableRandom(0); 
+		long[] pair = new long[2]; 
+		UnmadeHand a = new UnmadeHand(), b = new UnmadeHand(); 
+		long checksum = 0; 
+
+		for (int round = 0; round < WARMUP_ROUNDS; round++) {
+			Sample s = SAMPLES[round % SAMPLES.length]; 
+			long dealt = randomHand(random, s.rules.deck); 
+
+			checksum += s.rules.evaluate(s.cards) + s.rules.evaluate(dealt); 
+			checksum += s.rules.category(dealt).ordinal(); 
+			checksum += s.rules.compare(s.cards, dealt); 
+			pair[0] = s.cards; 
+			pair[1] = dealt; 
+			checksum += s.rules.winners(pair, 2); 
+
+			if (s.rules == Ruleset.HOLDEM) {
+				fill(a, s.cards); 
+				fill(b, dealt); 
+				checksum += HandEvaluator.evaluateStrength(a) + HandEvaluator.handType(b).ordinal(); 
+				checksum += HandEvaluator.compare(a, b) + HandEvaluator.winners(a, b).length; 
+			}
+		}
+		sink = checksum; 
+		return System.nanoTime() - start; 
+	}
+
+	private static long randomHand(SplittableRandom random, long deck) {
+		long hand = 0L; 
+		while (Long.bitCount(hand) < 7) {
+			long card = 1L << random.nextInt(Cards.DECK_SIZE); 
+			if ((card & deck) != 0) 
+				hand |= card; 
+		}
+		return hand; 
+	}
+
+	private static void fill(UnmadeHand hand, long cards) {
+		hand.clear(); 
+		for (; cards != 0; cards &= cards - 1) 
+			hand.addCard(Card.fromIndex(Long.numberOfTrailingZeros(cards))); 
+	}
+
+	/**
+	 * Startup benchmark: reports how long the JVM took to reach {@code main}, to build the tables, 
+	 * optionally to warm up, and then to evaluate the first and second million random hands. 
+	 */
+	public static void main(String[] args) {
+
+		long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime(); 
+		long enteredMain = System.currentTimeMillis(); 
+		boolean warm = args.length > 0 && args[0].equals("--warmup"); 
+		int evaluations = args.length > (warm ? 1 : 0) ? Integer.parseInt(args[warm ? 1 : 0]) : 1_000_000; 
+
+		long start = System.nanoTime(); 
+		initialize(); 
+		long initialized = System.nanoTime() - start; 
+		long warmup = warm ? warmup() : 0; 
+
+		SplittableRandom random = new SplittableRandom(42); 
+		long[] hands = new long[evaluations]; 
+		for (int i = 0; i < evaluations; i++) 
+			hands[i] = randomHand(random, Cards.FULL_DECK); 
+
+		long first = time(hands), second = time(hands); 
+
+		System.out.printf("JVM start to main:      %6d ms%n", enteredMain - jvmStart); 
+		System.out.printf("table initialization:   %6.1f ms%n", initialized / 1e6); 
+		if (warm) 
+			System.out.printf("warmup:                 %6.1f ms%n", warmup / 1e6); 
+		System.out.printf("first %,d evaluations:  %6.1f ms%n", evaluations, first / 1e6); 
+		System.out.printf("second %,d evaluations: %6.1f ms%n", evaluations, second / 1e6); 
+		System.out.printf("JVM start to done:      %6d ms%n", System.currentTimeMillis() - jvmStart); 
+	}
+
+	private static long time(long[] hands) {
+		long start = System.nanoTime(), checksum = 0; 
+		for (long hand : hands) 
+			checksum += HandEvaluator.evaluateStrength(hand); 
+		sink = checksum; 
+		return System.nanoTime() - start; 
+	}
+
+	private static final class Sample {
+
+		final Ruleset rules; 
+		final HandType type; 
+		final long cards; 
+
+		Sample(Ruleset rules, HandType type, String cards) {
+			this.rules = rules; 
+			this.type = type; 
+			this.cards = Cards.parse(cards); 
+		}
+	}
+}
@@ -33,10 +33,87 @@ public class HandEvaluator {
 		public int compareStrenghts(HandType other) {
 			return other.stregnth - this.stregnth; 
 		}
+
+		public int strength() {
+			return stregnth; 
+		}
+
+		/**
+		 * Inverse of {@link #strength()}. 
+		 */
+		public static HandType fromStrength(int strength) {
+			return BY_STRENGTH[strength]; 
+		}
+
+		private static final HandType[] BY_STRENGTH = new HandType[values().length]; 
+
+		static {
+			for (HandType t : values())
+				BY_STRENGTH[t.stregnth] = t; 
+		}
+	}
+
+	/**
+	 * Evaluates up to 7 cards given as a card mask (see {@link Card#mask()}) into a packed strength 
+	 * under {@link Ruleset#HOLDEM}. Higher packed strengths are better hands, and equal strengths tie. 
+	 * Unlike {@link #evaluate(UnmadeHand)} this allocates nothing, so it is what bulk equity work should call. 
+	 * 
+	 * @see HandStrength
+	 */
+	public static int evaluateStrength(long cards) {
+		return Ruleset.HOLDEM.evaluate(cards); 
+	}
+
+	/**
+	 * Convenience overload of {@link #evaluateStrength(long)}. 
+	 */
+	public static int evaluateStrength(UnmadeHand pre) {
+		return evaluateStrength(pre.mask()); 
+	}
+
+	/**
+	 * Batched form of {@link #evaluateStrength(long)}: writes the strength of {@code cards[i]} 
+	 * to {@code strengths[i]} for the first {@code n} entries. 
+	 */
+	public static void evaluateStrengths(long[] cards, int[] strengths, int n) {
+		for (int i = 0; i < n; i++) 
+			strengths[i] = evaluateStrength(cards[i]); 
+	}
+
+	/**
+	 * Returns just the {@code HandType} of a hand, without building its five cards or kickers. 
+	 */
+	public static HandType handType(UnmadeHand pre) {
+		return Ruleset.HOLDEM.category(pre.mask()); 
+	}
+
+	/**
+	 * Compares two hands by category first, only resolving kickers when the categories tie. 
+	 * Positive if {@code a} is stronger, negative if {@code b} is, 0 for a split. 
+	 */
+	public static int compare(UnmadeHand a, UnmadeHand b) {
+		return Ruleset.HOLDEM.compare(a.mask(), b.mask()); 
+	}
+
+	/**
+	 * Returns the indices of the winning hands of a showdown (more than one on a split). 
+	 * Kickers are only looked at among hands tied for the best category. 
+	 */
+	public static int[] winners(UnmadeHand... hands) {
+		long[] masks = new long[hands.length]; 
+		for (int i = 0; i < hands.length; i++) 
+			masks[i] = hands[i].mask(); 
+
+		int winners = Ruleset.HOLDEM.winners(masks, masks.length); 
+		int[] indices = new int[Integer.bitCount(winners)]; 
+		for (int i = 0; i < indices.length; i++, winners &= winners - 1) 
+			indices[i] = Integer.numberOfTrailingZeros(winners); 
+		return indices; 
 	}
 
 	/**
 	 * Evaulates an Unmade 7-card hand into the best 5 card HE hand. 
+	 * Only standard Hold'em rankings apply here; other variants go through {@link Ruleset#evaluate(long)}. 
 	 */
 	public static MadeHand evaluate(UnmadeHand pre) {
 
@@ -193,13 +270,15 @@ public class HandEvaluator {
 
 		rankHistogram.remove(rankOfTrips); 
 		
-		for (int i = 0; i < pre.cards.length; i++) 
-			if (pre.cards[i].rank == rankOfTrips)
-				pre.cards[i] = BLUE_EYES_WHITE_DRAGON; 
+		//blank the trips out of a copy, so the caller's hand still holds its real cards afterwards
+		Card[] rest = pre.cards.clone(); 
+		for (int i = 0; i < rest.length; i++) 
+			if (rest[i].rank == rankOfTrips)
+				rest[i] = BLUE_EYES_WHITE_DRAGON; 
 	
 
 		//sorted so no high card finding required
-		for (Card c : pre.cards) {
+		for (Card c : rest) {
 			if (c.rank == BLUE_EYES_WHITE_DRAGON.rank) 
 				continue; 
 			if (rankHistogram.get(c.rank) >= 2) 
@@ -0,0 +1,43 @@
+package game_components;
+
+import game_components.HandEvaluator.HandType;
+
+/**
+ * Helpers for the packed {@code int} hand strengths produced by {@link HandEvaluator#evaluateStrength(long)}. 
+ * 
+ * A packed strength holds the {@code HandType} strength in bits 20-23, followed by the five ranks 
+ * of the made hand, 4 bits apiece, in the same order as {@link MadeHand#highCardRankings}. 
+ * Comparing two packed strengths as plain ints compares the hands. 
+ * 
+ * @author Patrick Wamsley
+ */
+public final class HandStrength {
+
+	private HandStrength() {}
+
+	public static int pack(HandType type, int packedRanks) {
+		return type.strength() << 20 | packedRanks; 
+	}
+
+	public static HandType handType(int strength) {
+		return HandType.fromStrength(strength >>> 20); 
+	}
+
+	/**
+	 * Returns the i'th (0 = most significant) rank of the made hand. 
+	 */
+	public static int rank(int strength, int i) {
+		return strength >>> (4 * (4 - i)) & 0xF; 
+	}
+
+	/**
+	 * Unpacks a strength into a {@code MadeHand}. 
+	 * Wheels keep their ace as the last rank rather than {@link Card#BLUE_EYES_WHITE_DRAGON}'s. 
+	 */
+	public static MadeHand toMadeHand(int strength) {
+		int[] ranks = new int[5]; 
+		for (int i = 0; i < ranks.length; i++) 
+			ranks[i] = rank(strength, i); 
+		return new MadeHand(ranks, handType(strength)); 
+	}
+}
@@ -0,0 +1,277 @@
+package game_components;
+
+import static game_components.Card.ACE;
+import static game_components.Card.SIX;
+import static game_components.Card.TWO;
+
+import game_components.HandEvaluator.HandType;
+
+/**
+ * A variant's deck and hand rankings, with the lookup tables its packed evaluator runs on. 
+ * 
+ * Each ruleset generates its own tables, indexed by a 13 bit rank mask (bit 0 = deuce, bit 12 = ace): 
+ * the (up to) five highest ranks packed 4 bits apiece, highest first, and the five ranks of the best 
+ * straight in the same format, with the ruleset's own wheel. Categories are ordered per ruleset, and 
+ * a packed strength stores the category's position in that order in bits 20-23, so packed strengths 
+ * from one ruleset compare correctly as plain ints. Only compare strengths from the same ruleset. 
+ * 
+ * @see HandStrength
+ * @author Patrick Wamsley
+ */
+public final class Ruleset {
+
+	/** Standard 52 card Hold'em. Its packed strengths are the ones {@link HandStrength} decodes. */
+	public static final Ruleset HOLDEM = new Ruleset("Hold'em", TWO, 
+			HandType.HIGH_CARD, HandType.PAIR, HandType.TWO_PAIR, HandType.TRIPS, HandType.STRAIGHT, 
+			HandType.FLUSH, HandType.FULL_HOUSE, HandType.QUADS, HandType.STRAIGHT_FLUSH); 
+
+	/** Short Deck (6+): 36 cards, A-6-7-8-9 is the wheel, and flushes beat full houses. */
+	public static final Ruleset SHORT_DECK = new Ruleset("Short Deck", SIX, 
+			HandType.HIGH_CARD, HandType.PAIR, HandType.TWO_PAIR, HandType.TRIPS, HandType.STRAIGHT, 
+			HandType.FULL_HOUSE, HandType.FLUSH, HandType.QUADS, HandType.STRAIGHT_FLUSH); 
+
+	private static final int RANK_MASKS = 1 << 13; 
+
+	public final String name; 
+
+	/** The cards in play, as a card mask. */
+	public final long deck; 
+
+	public final int lowestRank; 
+
+	private final int[] topFive = new int[RANK_MASKS]; 
+	private final int[] straight = new int[RANK_MASKS]; 
+
+	private final int[] categoryRank = new int[HandType.values().length]; 
+	private final HandType[] typeByRank = new HandType[HandType.values().length]; 
+
+	/**
+	 * @param weakestFirst every {@code HandType}, from weakest to strongest 
+	 */
+	private Ruleset(String name, int lowestRank, HandType... weakestFirst) {
+
+		this.name = name; 
+		this.lowestRank = lowestRank; 
+
+		int ranks = ((1 << (ACE - lowestRank + 1)) - 1) << (lowestRank - TWO); 
+		long deck = 0L; 
+		for (int suit = 0; suit < 4; suit++) 
+			deck |= (long) ranks << (13 * suit); 
+		this.deck = deck; 
+
+		for (int rank = 0; rank < weakestFirst.length; rank++) {
+			categoryRank[weakestFirst[rank].ordinal()] = rank; 
+			typeByRank[rank] = weakestFirst[rank]; 
+		}
+
+		int low = lowestRank - TWO; 
+		int wheel = 1 << (ACE - TWO) | 0xF << low; 
+		for (int mask = 0; mask < RANK_MASKS; mask++) {
+			int packed = 0, taken = 0; 
+			for (int bit = 12; bit >= 0 && taken < 5; bit--) {
+				if ((mask & (1 << bit)) != 0) {
+					packed |= (bit + TWO) << (4 * (4 - taken)); 
+					taken++; 
+				}
+			}
+			topFive[mask] = packed; 
+
+			for (int high = 12; high >= low + 4; high--) {
+				int run = 0x1F << (high - 4); 
+				if ((mask & run) == run) {
+					straight[mask] = topFive[run]; 
+					break; 
+				}
+			}
+			if (straight[mask] == 0 && (mask & wheel) == wheel) 
+				straight[mask] = (low + 3 + TWO) << 16 | (low + 2 + TWO) << 12 | (low + 1 + TWO) << 8 | (low + TWO) << 4 | ACE; 
+		}
+	}
+
+	/**
+	 * Evaluates up to 7 cards, given as a card mask, into a packed strength under these rules. 
+	 */
+	public int evaluate(long cards) {
+
+		int hearts = (int) cards & 0x1FFF, diamonds = (int) (cards >>> 13) & 0x1FFF, 
+				spades = (int) (cards >>> 26) & 0x1FFF, clubs = (int) (cards >>> 39) & 0x1FFF; 
+
+		int flush = flushRanks(hearts, diamonds, spades, clubs); 
+		if (flush != 0 && straight[flush] != 0)
+			return pack(HandType.STRAIGHT_FLUSH, straight[flush]); 
+
+		int ranks = hearts | diamonds | spades | clubs; 
+		int quads = hearts & diamonds & spades & clubs; 
+		if (quads != 0) {
+			int quad = Integer.highestOneBit(quads); 
+			return pack(HandType.QUADS, repeat(quad, 4) << 4 | topFive[ranks & ~quad] >>> 16); 
+		}
+
+		int pairs = (hearts & diamonds) | (hearts & spades) | (hearts & clubs) 
+				| (diamonds & spades) | (diamonds & clubs) | (spades & clubs); 
+		int trips = (hearts & diamonds & (spades | clubs)) | (spades & clubs & (hearts | diamonds)); 
+
+		int best = 0; 
+		if (trips != 0) {
+			int trip = Integer.highestOneBit(trips); 
+			int rest = pairs & ~trip; 
+			if (rest != 0) 
+				best = pack(HandType.FULL_HOUSE, repeat(trip, 3) << 8 | repeat(Integer.highestOneBit(rest), 2)); 
+		}
+		//whichever of full house and flush these rules rank higher wins
+		if (flush != 0)
+			best = Math.max(best, pack(HandType.FLUSH, topFive[flush])); 
+		if (best != 0) 
+			return best; 
+
+		if (straight[ranks] != 0)
+			return pack(HandType.STRAIGHT, straight[ranks]); 
+
+		if (trips != 0) {
+			int trip = Integer.highestOneBit(trips); 
+			return pack(HandType.TRIPS, repeat(trip, 3) << 8 | topFive[ranks & ~trip] >>> 12); 
+		}
+
+		if (pairs != 0) {
+			int high = Integer.highestOneBit(pairs); 
+			int low = Integer.highestOneBit(pairs & ~high); 
+			if (low != 0) 
+				return pack(HandType.TWO_PAIR, 
+						repeat(high, 2) << 12 | repeat(low, 2) << 4 | topFive[ranks & ~(high | low)] >>> 16); 
+			return pack(HandType.PAIR, repeat(high, 2) << 12 | topFive[ranks & ~high] >>> 8); 
+		}
+
+		return pack(HandType.HIGH_CARD, topFive[ranks]); 
+	}
+
+	/**
+	 * Returns just the category of up to 7 cards. This skips packing ranks and kickers, 
+	 * so it is cheaper than {@link #evaluate(long)} when only the category matters. 
+	 */
+	public HandType category(long cards) {
+
+		int hearts = (int) cards & 0x1FFF, diamonds = (int) (cards >>> 13) & 0x1FFF, 
+				spades = (int) (cards >>> 26) & 0x1FFF, clubs = (int) (cards >>> 39) & 0x1FFF; 
+
+		int flush = flushRanks(hearts, diamonds, spades, clubs); 
+		if (flush != 0 && straight[flush] != 0)
+			return HandType.STRAIGHT_FLUSH; 
+		if ((hearts & diamonds & spades & clubs) != 0) 
+			return HandType.QUADS; 
+
+		int pairs = (hearts & diamonds) | (hearts & spades) | (hearts & clubs) 
+				| (diamonds & spades) | (diamonds & clubs) | (spades & clubs); 
+		int trips = (hearts & diamonds & (spades | clubs)) | (spades & clubs & (hearts | diamonds)); 
+		boolean fullHouse = trips != 0 && (pairs & ~Integer.highestOneBit(trips)) != 0; 
+
+		if (fullHouse && flush != 0) 
+			return compare(HandType.FULL_HOUSE, HandType.FLUSH) > 0 ? HandType.FULL_HOUSE : HandType.FLUSH; 
+		if (fullHouse) 
+			return HandType.FULL_HOUSE; 
+		if (flush != 0) 
+			return HandType.FLUSH; 
+		if (straight[hearts | diamonds | spades | clubs] != 0) 
+			return HandType.STRAIGHT; 
+		if (trips != 0) 
+			return HandType.TRIPS; 
+		if (pairs != 0) 
+			return (pairs & (pairs - 1)) != 0 ? HandType.TWO_PAIR : HandType.PAIR; 
+		return HandType.HIGH_CARD; 
+	}
+
+	/**
+	 * Compares two hands of up to 7 cards; positive if {@code a} is stronger, 0 if they tie. 
+	 * Categories are compared first, and ranks and kickers are only worked out if they match. 
+	 */
+	public int compare(long a, long b) {
+		int byCategory = compare(category(a), category(b)); 
+		if (byCategory != 0) 
+			return byCategory; 
+		return Integer.compare(evaluate(a), evaluate(b)); 
+	}
+
+	/**
+	 * Returns a bit mask of the strongest of up to 32 hands (bit i set if {@code hands[i]} wins or ties for best). 
+	 * Only the hands sharing the best category have their kickers resolved, and if just one does it wins outright. 
+	 */
+	public int winners(long[] hands, int n) {
+
+		if (n > 32) 
+			throw new IllegalArgumentException("At most 32 hands go to showdown"); 
+
+		int bestRank = -1, contenders = 0; 
+		for (int i = 0; i < n; i++) {
+			int rank = categoryRank[category(hands[i]).ordinal()]; 
+			if (rank > bestRank) {
+				bestRank = rank; 
+				contenders = 1 << i; 
+			} else if (rank == bestRank) {
+				contenders |= 1 << i; 
+			}
+		}
+		if ((contenders & (contenders - 1)) == 0) 
+			return contenders; 
+
+		int best = -1, winners = 0; 
+		for (int left = contenders; left != 0; left &= left - 1) {
+			int i = Integer.numberOfTrailingZeros(left); 
+			int strength = evaluate(hands[i]); 
+			if (strength > best) {
+				best = strength; 
+				winners = 1 << i; 
+			} else if (strength == best) {
+				winners |= 1 << i; 
+			}
+		}
+		return winners; 
+	}
+
+	/**
+	 * Returns the category of a packed strength produced by {@link #evaluate(long)}. 
+	 */
+	public HandType handType(int strength) {
+		return typeByRank[strength >>> 20]; 
+	}
+
+	/**
+	 * Compares categories under these rules; positive if {@code a} is the stronger. 
+	 */
+	public int compare(HandType a, HandType b) {
+		return categoryRank[a.ordinal()] - categoryRank[b.ordinal()]; 
+	}
+
+	@Override
+	public String toString() {
+		return name; 
+	}
+
+	private int pack(HandType type, int packedRanks) {
+		return categoryRank[type.ordinal()] << 20 | packedRanks; 
+	}
+
+	/**
+	 * Returns the rank mask of the flushed suit, or 0 if no suit has 5 cards. 
+	 */
+	private static int flushRanks(int hearts, int diamonds, int spades, int clubs) {
+		if (Integer.bitCount(hearts) >= 5) 
+			return hearts; 
+		if (Integer.bitCount(diamonds) >= 5) 
+			return diamonds; 
+		if (Integer.bitCount(spades) >= 5) 
+			return spades; 
+		if (Integer.bitCount(clubs) >= 5) 
+			return clubs; 
+		return 0; 
+	}
+
+	/**
+	 * Packs the rank of a single bit rank mask {@code times} times, 4 bits apiece. 
+	 */
+	private static int repeat(int rankBit, int times) {
+		int rank = Integer.numberOfTrailingZeros(rankBit) + TWO; 
+		int packed = 0; 
+		for (int i = 0; i < times; i++) 
+			packed = packed << 4 | rank; 
+		return packed; 
+	}
+}
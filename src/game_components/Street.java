@@ -0,0 +1,24 @@
+package game_components;
+
+/**
+ * The betting rounds after the flop, identified by how many community cards are out. 
+ * 
+ * @author Patrick Wamsley
+ */
+public enum Street {
+
+	FLOP(3), TURN(4), RIVER(5); 
+
+	public final int boardCards; 
+
+	Street(int boardCards) {
+		this.boardCards = boardCards; 
+	}
+
+	/**
+	 * Number of community cards still to come on this street. 
+	 */
+	public int cardsToCome() {
+		return RIVER.boardCards - boardCards; 
+	}
+}
@@ -20,4 +20,24 @@ public class UnmadeHand {
 		}
 		return this; 
 	}
+
+	/**
+	 * Empties the hand so it can be dealt again, for callers that reuse hands rather than allocate new ones. 
+	 */
+	public UnmadeHand clear() {
+		cardsInHand = 0; 
+		return this; 
+	}
+
+	/**
+	 * Returns the cards dealt so far as a 52 bit card mask. 
+	 * 
+	 * @see Card#mask()
+	 */
+	public long mask() {
+		long mask = 0L; 
+		for (int i = 0; i < cardsInHand; i++)
+			mask |= cards[i].mask(); 
+		return mask; 
+	}
 }
@@ -0,0 +1,125 @@
+package icm;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import abstraction.CanonicalHands;
+import equity.EquityCalculator;
+
+/**
+ * Values call and fold decisions against preflop all-ins in prize money, combining showdown odds 
+ * with {@link IcmCalculator} equities of the resulting stacks. 
+ * 
+ * Showdown odds are memoized by the suit-canonical form of the two hands, so each of the matchups 
+ * is enumerated once no matter how many spots reuse it. Batches of spots are split recursively across 
+ * a work-stealing {@link ForkJoinPool}, so uneven costs (first sight of a matchup, large fields) balance out. 
+ * 
+ * @author Patrick Wamsley
+ */
+public final class AllInSimulator {
+
+	private static final int LEAF_SPOTS = 64; 
+
+	private final IcmCalculator icm; 
+	private final ForkJoinPool pool; 
+	private final ConcurrentHashMap<Long, double[]> matchups = new ConcurrentHashMap<>(); 
+
+	public AllInSimulator(IcmCalculator icm, int parallelism) {
+		this.icm = icm; 
+		this.pool = new ForkJoinPool(parallelism); 
+	}
+
+	/**
+	 * Returns the caller's prize equity after folding and after calling, in that order. 
+	 * The fold and every showdown outcome are valued in one {@link IcmCalculator#equities(double[][], int)} call, 
+	 * so large fields sample their finishing orders once per decision. If the caller busts, they're paid 
+	 * for finishing last of the players who started the hand. 
+	 */
+	public double[] callerEquity(AllInSpot spot) {
+
+		double[] pot = new double[1]; 
+		double[] after = spot.afterCall(pot); 
+		double[] odds = showdownOdds(spot.shoverHole, spot.callerHole); 
+
+		double[][] stacks = {
+			spot.afterFold(), 
+			settle(after, spot.shover, pot[0]), 
+			split(after, spot.shover, spot.caller, pot[0]), 
+			settle(after, spot.caller, pot[0]), 
+		}; 
+		double[] equity = icm.equities(stacks, spot.caller); 
+
+		//losing it all still pays the place the caller busts in; the others are valued on the places above it
+		int live = 0; 
+		for (double stack : spot.stacks) 
+			if (stack > 0) 
+				live++; 
+		for (int v = 0; v < stacks.length; v++) 
+			if (stacks[v][spot.caller] <= 0) 
+				equity[v] = icm.bustPayout(live); 
+
+		return new double[] {equity[0], odds[0] * equity[1] + odds[1] * equity[2] + odds[2] * equity[3]}; 
+	}
+
+	/**
+	 * Values every spot in parallel; {@code result[i]} is {@link #callerEquity(AllInSpot)} of {@code spots[i]}. 
+	 */
+	public double[][] simulate(AllInSpot[] spots) {
+		double[][] results = new double[spots.length][]; 
+		pool.invoke(new Batch(spots, results, 0, spots.length)); 
+		return results; 
+	}
+
+	public void shutdown() {
+		pool.shutdown(); 
+	}
+
+	/**
+	 * Win, tie and loss odds for the shover's hole against the caller's, preflop. 
+	 */
+	double[] showdownOdds(long shoverHole, long callerHole) {
+		return matchups.computeIfAbsent(CanonicalHands.canonicalKey(shoverHole, callerHole), key -> 
+				EquityCalculator.outcomes(CanonicalHands.hole(key), CanonicalHands.board(key), 0L)); 
+	}
+
+	private static double[] settle(double[] after, int winner, double pot) {
+		double[] settled = after.clone(); 
+		settled[winner] += pot; 
+		return settled; 
+	}
+
+	private static double[] split(double[] after, int a, int b, double pot) {
+		double[] settled = after.clone(); 
+		settled[a] += pot / 2; 
+		settled[b] += pot / 2; 
+		return settled; 
+	}
+
+	private final class Batch extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L; 
+
+		private final AllInSpot[] spots; 
+		private final double[][] results; 
+		private final int from, to; 
+
+		Batch(AllInSpot[] spots, double[][] results, int from, int to) {
+			this.spots = spots; 
+			this.results = results; 
+			this.from = from; 
+			this.to = to; 
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= LEAF_SPOTS) {
+				for (int i = from; i < to; i++) 
+					results[i] = callerEquity(spots[i]); 
+				return; 
+			}
+			int mid = (from + to) >>> 1; 
+			invokeAll(new Batch(spots, results, from, mid), new Batch(spots, results, mid, to)); 
+		}
+	}
+}
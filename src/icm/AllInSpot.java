@@ -0,0 +1,67 @@
+package icm;
+
+/**
+ * A tournament spot where {@code shover} has moved all in and {@code caller} must call or fold. 
+ * Everyone else has folded. 
+ * 
+ * @author Patrick Wamsley
+ */
+public final class AllInSpot {
+
+	/** Each player's chips at the start of the hand, including what they've posted. */
+	public final double[] stacks; 
+
+	/** Chips each player has already put in (blinds and antes). */
+	public final double[] posted; 
+
+	public final int shover, caller; 
+
+	/** Hole cards as card masks. */
+	public final long shoverHole, callerHole; 
+
+	public AllInSpot(double[] stacks, double[] posted, int shover, int caller, long shoverHole, long callerHole) {
+		if (stacks.length != posted.length || shover == caller) 
+			throw new IllegalArgumentException("Need a posted amount per player and two distinct players"); 
+		this.stacks = stacks; 
+		this.posted = posted; 
+		this.shover = shover; 
+		this.caller = caller; 
+		this.shoverHole = shoverHole; 
+		this.callerHole = callerHole; 
+	}
+
+	/**
+	 * Stacks after the caller folds: everything posted goes to the shover. 
+	 */
+	double[] afterFold() {
+		double[] after = behind(); 
+		after[shover] += pot(); 
+		return after; 
+	}
+
+	/**
+	 * Stacks after a call, before the showdown is settled. The pot is left in {@code potOut[0]}. 
+	 */
+	double[] afterCall(double[] potOut) {
+		double effective = Math.min(stacks[shover], stacks[caller]); 
+		double[] after = behind(); 
+		after[shover] -= effective - posted[shover]; 
+		after[caller] -= effective - posted[caller]; 
+		potOut[0] = pot() + (effective - posted[shover]) + (effective - posted[caller]); 
+		return after; 
+	}
+
+	private double[] behind() {
+		double[] behind = stacks.clone(); 
+		for (int p = 0; p < behind.length; p++) 
+			behind[p] -= posted[p]; 
+		return behind; 
+	}
+
+	private double pot() {
+		double pot = 0; 
+		for (double p : posted) 
+			pot += p; 
+		return pot; 
+	}
+}
@@ -0,0 +1,225 @@
+package icm;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Independent Chip Model tournament equity under the Malmuth-Harville assumption: each remaining place 
+ * goes to a remaining player with probability proportional to their stack. 
+ * 
+ * Up to {@value #MAX_EXACT_PLAYERS} players are solved exactly with a DP over subsets of placed players, 
+ * in O(2<sup>n</sup> n) rather than enumerating all n! finishing orders. Larger fields are estimated by 
+ * sampling finishing orders: sorting players by {@code Exp(1) / stack} gives exactly the Harville 
+ * distribution over orders, so each sample is one sort. When only one player's equity is wanted, 
+ * that player's place is just how many keys are below theirs, with no sort at all, and 
+ * {@link #equities(double[][], int)} reuses each sample's draws across several stack vectors. 
+ * 
+ * Players with no chips are treated as already out: they get nothing here, and the payouts are 
+ * for the places the players still in finish in. A player who busts in the hand being valued has 
+ * still earned the place they bust in, which {@link #bustPayout(int)} gives. 
+ * 
+ * @author Patrick Wamsley
+ */
+public final class IcmCalculator {
+
+	public static final int MAX_EXACT_PLAYERS = 10; 
+
+	public static final int DEFAULT_SAMPLES = 100_000; 
+
+	private static final int INDEX_BITS = 16; 
+
+	/** payouts[k] is the prize for finishing in place k + 1 */
+	private final double[] payouts; 
+
+	/** finishing orders sampled when a field is too large to solve exactly */
+	private final int samples; 
+
+	public IcmCalculator(double... payouts) {
+		this(DEFAULT_SAMPLES, payouts.clone()); 
+	}
+
+	private IcmCalculator(int samples, double[] payouts) {
+		if (payouts.length == 0) 
+			throw new IllegalArgumentException("Need at least one payout"); 
+		if (samples < 1) 
+			throw new IllegalArgumentException("Need at least one sample"); 
+		this.payouts = payouts; 
+		this.samples = samples; 
+	}
+
+	/**
+	 * The prize for busting while {@code livePlayers} players, the buster included, were still in: 
+	 * they finish last of those, in place {@code livePlayers}. 
+	 */
+	public double bustPayout(int livePlayers) {
+		return livePlayers <= payouts.length ? payouts[livePlayers - 1] : 0; 
+	}
+
+	/**
+	 * Returns a calculator with the same payouts that samples {@code samples} finishes for large fields 
+	 * instead of {@value #DEFAULT_SAMPLES}, trading accuracy for speed. 
+	 */
+	public IcmCalculator withSamples(int samples) {
+		return new IcmCalculator(samples, payouts); 
+	}
+
+	/**
+	 * Returns each player's prize equity, exactly if few enough players have chips, 
+	 * otherwise from sampled finishes. 
+	 */
+	public double[] equities(double[] stacks) {
+		return liveCount(stacks) <= MAX_EXACT_PLAYERS ? exact(stacks) : monteCarlo(stacks, samples, 0L); 
+	}
+
+	/**
+	 * Returns {@code seat}'s prize equity under each of several stack vectors, such as the stacks after 
+	 * each outcome of one decision. Exact if every vector is small enough, otherwise sampled, with each 
+	 * sample's draws shared by all the vectors so that the differences between them are much less noisy 
+	 * than separate estimates would be. 
+	 */
+	public double[] equities(double[][] stacks, int seat) {
+		boolean exact = true; 
+		for (double[] s : stacks) 
+			exact &= liveCount(s) <= MAX_EXACT_PLAYERS; 
+		if (!exact) 
+			return monteCarlo(stacks, seat, samples, 0L); 
+
+		double[] equity = new double[stacks.length]; 
+		for (int v = 0; v < stacks.length; v++) 
+			equity[v] = exact(stacks[v])[seat]; 
+		return equity; 
+	}
+
+	public double[] exact(double[] stacks) {
+
+		int[] seat = liveSeats(stacks); 
+		int n = seat.length; 
+		if (n > MAX_EXACT_PLAYERS) 
+			throw new IllegalArgumentException("Exact ICM is limited to " + MAX_EXACT_PLAYERS + " players"); 
+
+		double total = 0; 
+		for (int s : seat) 
+			total += stacks[s]; 
+
+		//reach[mask]: probability that the players in mask took the top |mask| places, in some order
+		double[] reach = new double[1 << n]; 
+		double[] placedChips = new double[1 << n]; 
+		double[] equity = new double[n]; 
+		int places = Math.min(n, payouts.length); 
+		reach[0] = 1; 
+
+		for (int mask = 0; mask < reach.length; mask++) {
+			if (mask != 0) {
+				int lowest = Integer.numberOfTrailingZeros(mask); 
+				placedChips[mask] = placedChips[mask & (mask - 1)] + stacks[seat[lowest]]; 
+			}
+			int place = Integer.bitCount(mask); 
+			if (reach[mask] == 0 || place >= places) 
+				continue; 
+
+			double remaining = total - placedChips[mask]; 
+			for (int p = 0; p < n; p++) {
+				if ((mask & 1 << p) != 0) 
+					continue; 
+				double next = reach[mask] * stacks[seat[p]] / remaining; 
+				equity[p] += next * payouts[place]; 
+				reach[mask | 1 << p] += next; 
+			}
+		}
+
+		double[] bySeat = new double[stacks.length]; 
+		for (int p = 0; p < n; p++) 
+			bySeat[seat[p]] = equity[p]; 
+		return bySeat; 
+	}
+
+	public double[] monteCarlo(double[] stacks, int samples, long seed) {
+
+		int[] seat = liveSeats(stacks); 
+		int n = seat.length; 
+		if (n >= 1 << INDEX_BITS) 
+			throw new IllegalArgumentException("Sampled ICM is limited to " + ((1 << INDEX_BITS) - 1) + " players"); 
+
+		Random random = new Random(seed); 
+		long[] order = new long[n]; 
+		double[] equity = new double[n]; 
+		int places = Math.min(n, payouts.length); 
+
+		for (int sample = 0; sample < samples; sample++) {
+			for (int p = 0; p < n; p++) {
+				double key = -Math.log(1 - random.nextDouble()) / stacks[seat[p]]; 
+				//non-negative doubles order like their bits; the low bits carry the player instead
+				order[p] = Double.doubleToRawLongBits(key) & -1L << INDEX_BITS | p; 
+			}
+			Arrays.sort(order); 
+			for (int place = 0; place < places; place++) 
+				equity[(int) (order[place] & (1 << INDEX_BITS) - 1)] += payouts[place]; 
+		}
+
+		double[] bySeat = new double[stacks.length]; 
+		for (int p = 0; p < n; p++) 
+			bySeat[seat[p]] = equity[p] / samples; 
+		return bySeat; 
+	}
+
+	/**
+	 * Sampled equity of one seat under each stack vector, the vectors sharing every sample's draws. 
+	 * The seat's place in a sample is the number of live players whose key is below its own. 
+	 */
+	public double[] monteCarlo(double[][] stacks, int seat, int samples, long seed) {
+
+		int seats = stacks[0].length; 
+		//1 / stack for live players and 0 for busted ones, whose keys then never beat anyone's
+		double[][] inverse = new double[stacks.length][seats]; 
+		for (int v = 0; v < stacks.length; v++) {
+			if (stacks[v].length != seats) 
+				throw new IllegalArgumentException("Every stack vector needs the same seats"); 
+			for (int p = 0; p < seats; p++) 
+				inverse[v][p] = stacks[v][p] > 0 ? 1 / stacks[v][p] : 0; 
+		}
+
+		SplittableRandom random = new SplittableRandom(seed); 
+		double[] draw = new double[seats]; 
+		double[] equity = new double[stacks.length]; 
+
+		for (int sample = 0; sample < samples; sample++) {
+			for (int p = 0; p < seats; p++) 
+				draw[p] = -Math.log(1 - random.nextDouble()); 
+
+			for (int v = 0; v < stacks.length; v++) {
+				double[] inv = inverse[v]; 
+				if (inv[seat] == 0) 
+					continue; 
+				double key = draw[seat] * inv[seat]; 
+				int place = 0; 
+				for (int p = 0; p < seats; p++) 
+					if (inv[p] != 0 && draw[p] * inv[p] < key) 
+						place++; 
+				if (place < payouts.length) 
+					equity[v] += payouts[place]; 
+			}
+		}
+
+		for (int v = 0; v < equity.length; v++) 
+			equity[v] /= samples; 
+		return equity; 
+	}
+
+	private static int liveCount(double[] stacks) {
+		int live = 0; 
+		for (double s : stacks) 
+			if (s > 0) 
+				live++; 
+		return live; 
+	}
+
+	private static int[] liveSeats(double[] stacks) {
+		int[] seats = new int[stacks.length]; 
+		int n = 0; 
+		for (int s = 0; s < stacks.length; s++) 
+			if (stacks[s] > 0) 
+				seats[n++] = s; 
+		return Arrays.copyOf(seats, n); 
+	}
+}
@@ -0,0 +1,125 @@
+package jobs;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+import game_components.Cards;
+import game_components.Ruleset;
+
+/**
+ * Monte Carlo all-in equity of up to 10 known hands on a partial board, dealing the rest of the board at random. 
+ * 
+ * Each trial's pot is {@link #SHARE} units, split evenly among the winners; {@code SHARE} is divisible by 
+ * every possible number of winners, so the counts stay exact integers. 
+ * 
+ * @author Patrick Wamsley
+ */
+public final class EquityJob implements SimulationJob {
+
+	/** the least common multiple of 1 through 10 */
+	public static final long SHARE = 2520; 
+
+	private final Ruleset rules; 
+	private final long[] holes; 
+	private final long board; 
+	private final int[] live; 
+	private final int toDeal; 
+
+	public EquityJob(long board, long... holes) {
+		this(Ruleset.HOLDEM, board, holes); 
+	}
+
+	public EquityJob(Ruleset rules, long board, long... holes) {
+		if (holes.length < 2 || holes.length > 10) 
+			throw new IllegalArgumentException("Need 2 to 10 hands"); 
+		long dead = board; 
+		for (long hole : holes) {
+			if (Long.bitCount(hole) != 2 || (hole & dead) != 0) 
+				throw new IllegalArgumentException("Hands must be two cards each and not overlap each other or the board"); 
+			dead |= hole; 
+		}
+		if (Long.bitCount(board) > 5) 
+			throw new IllegalArgumentException("A board has at most 5 cards"); 
+
+		this.rules = rules; 
+		this.holes = holes.clone(); 
+		this.board = board; 
+		this.live = Cards.liveCards(dead | ~rules.deck); 
+		this.toDeal = 5 - Long.bitCount(board); 
+	}
+
+	@Override
+	public String name() {
+		StringBuilder sb = new StringBuilder("equity ").append(rules.name); 
+		for (long hole : holes) 
+			sb.append(' ').append(Cards.toString(hole)); 
+		return sb.append(" on ").append(Cards.toString(board)).toString(); 
+	}
+
+	@Override
+	public int counters() {
+		return holes.length; 
+	}
+
+	@Override
+	public void run(SplittableRandom random, int trials, long[] counts) {
+
+		int[] deck = live.clone(); 
+		long[] hands = new long[holes.length]; 
+
+		for (int t = 0; t < trials; t++) {
+			long runout = board; 
+			for (int i = 0; i < toDeal; i++) {
+				int j = i + random.nextInt(deck.length - i); 
+				int card = deck[j]; 
+				deck[j] = deck[i]; 
+				deck[i] = card; 
+				runout |= 1L << card; 
+			}
+			for (int p = 0; p < hands.length; p++) 
+				hands[p] = holes[p] | runout; 
+
+			int winners = rules.winners(hands, hands.length); 
+			long share = SHARE / Integer.bitCount(winners); 
+			for (; winners != 0; winners &= winners - 1) 
+				counts[Integer.numberOfTrailingZeros(winners)] += share; 
+		}
+	}
+
+	/**
+	 * Converts the counts of {@code trials} trials into each hand's equity. 
+	 */
+	public static double[] equities(long[] counts, long trials) {
+		double[] equity = new double[counts.length]; 
+		for (int p = 0; p < counts.length; p++) 
+			equity[p] = (double) counts[p] / (trials * SHARE); 
+		return equity; 
+	}
+
+	public static void main(String[] args) throws IOException {
+
+		if (args.length < 4) {
+			System.err.println("usage: EquityJob <hands, e.g. AhKh,QsQd> <board or -> <trials> <checkpoint file> [seed] [threads]"); 
+			System.exit(1); 
+		}
+
+		String[] hands = args[0].split(","); 
+		long[] holes = new long[hands.length]; 
+		for (int p = 0; p < hands.length; p++) 
+			holes[p] = Cards.parse(hands[p]); 
+		long board = args[1].equals("-") ? 0L : Cards.parse(args[1]); 
+		long trials = Long.parseLong(args[2]); 
+		long seed = args.length > 4 ? Long.parseLong(args[4]) : 0L; 
+		int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors(); 
+
+		long start = System.nanoTime(); 
+		long[] counts = new JobRunner(new EquityJob(board, holes), seed, trials)
+			.checkpointTo(Paths.get(args[3]), 60_000)
+			.run(threads); 
+		double[] equity = equities(counts, trials); 
+		for (int p = 0; p < hands.length; p++) 
+			System.out.printf("%s: %.4f%n", hands[p], equity[p]); 
+		System.out.printf("%d trials in %.1fs%n", trials, (System.nanoTime() - start) / 1e9); 
+	}
+}
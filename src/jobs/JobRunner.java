@@ -0,0 +1,175 @@
+package jobs;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Runs a {@link SimulationJob} in parallel so that its counts depend only on the seed and trial count, 
+ * never on the number of threads or how chunks were scheduled, and optionally checkpoints them so an 
+ * interrupted run picks up where it left off. 
+ * 
+ * The trials are cut into fixed size chunks, and chunk {@code i} always draws from the same 
+ * {@link SplittableRandom}, seeded from {@code seed} and {@code i} alone. Chunks run a round at a time; 
+ * after each round the chunks so far are a prefix of the job, so a checkpoint is just that prefix's length 
+ * and its summed counts. 
+ * 
+ * Checkpoint layout (big endian): {magic, version}, the seed, trial count and chunk size, the job's name, 
+ * its counter count, the number of chunks done, and then the counters. It's written to a temporary file 
+ * and moved over the old one, so a crash mid write leaves the previous checkpoint intact. 
+ * 
+ * @author Patrick Wamsley
+ */
+public final class JobRunner {
+
+	static final int MAGIC = 0x4E4C484A, VERSION = 1; 
+
+	/** chunks per thread per round; more means fewer pauses to sum, fewer means finer checkpoints */
+	private static final int CHUNKS_PER_THREAD = 4; 
+
+	private final SimulationJob job; 
+	private final long seed, trials; 
+	private final int chunkTrials, chunks; 
+
+	private Path checkpoint; 
+	private long checkpointMillis; 
+
+	public JobRunner(SimulationJob job, long seed, long trials) {
+		this(job, seed, trials, 10_000); 
+	}
+
+	/**
+	 * @param chunkTrials trials per chunk; changing it changes the random streams, and so the result 
+	 */
+	public JobRunner(SimulationJob job, long seed, long trials, int chunkTrials) {
+		if (trials < 0 || chunkTrials < 1) 
+			throw new IllegalArgumentException("Need a non-negative trial count and positive chunk size"); 
+		if ((trials + chunkTrials - 1) / chunkTrials > Integer.MAX_VALUE) 
+			throw new IllegalArgumentException("Too many chunks; use bigger ones"); 
+		this.job = job; 
+		this.seed = seed; 
+		this.trials = trials; 
+		this.chunkTrials = chunkTrials; 
+		this.chunks = (int) ((trials + chunkTrials - 1) / chunkTrials); 
+	}
+
+	/**
+	 * Checkpoints to {@code file} whenever at least {@code intervalMillis} have passed since the last one, 
+	 * and once more when done. If the file already holds a checkpoint of this run, {@link #run(int)} resumes it. 
+	 */
+	public JobRunner checkpointTo(Path file, long intervalMillis) {
+		this.checkpoint = file; 
+		this.checkpointMillis = intervalMillis; 
+		return this; 
+	}
+
+	public long[] run() throws IOException {
+		return run(Runtime.getRuntime().availableProcessors()); 
+	}
+
+	/**
+	 * Runs the rest of the job on {@code threads} threads and returns its counts. 
+	 * 
+	 * @throws IOException if the checkpoint can't be read or written, or belongs to a different run 
+	 */
+	public long[] run(int threads) throws IOException {
+
+		long[] counts = new long[job.counters()]; 
+		int done = checkpoint != null && Files.exists(checkpoint) ? resume(counts) : 0; 
+		long lastCheckpoint = System.currentTimeMillis(); 
+
+		ForkJoinPool pool = new ForkJoinPool(threads); 
+		try {
+			while (done < chunks) {
+				int from = done, to = (int) Math.min(chunks, (long) done + threads * CHUNKS_PER_THREAD); 
+				long[] round = pool.submit(() -> IntStream.range(from, to).parallel()
+					.mapToObj(this::runChunk)
+					.reduce(JobRunner::sum).get()).get(); 
+				sum(counts, round); 
+				done = to; 
+
+				if (checkpoint != null && (done == chunks || System.currentTimeMillis() - lastCheckpoint >= checkpointMillis)) {
+					save(counts, done); 
+					lastCheckpoint = System.currentTimeMillis(); 
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt(); 
+			throw new IOException("Interrupted; resume from the last checkpoint", e); 
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) 
+				throw (RuntimeException) e.getCause(); 
+			throw new IllegalStateException(e.getCause()); 
+		} finally {
+			pool.shutdown(); 
+		}
+		return counts; 
+	}
+
+	private long[] runChunk(int chunk) {
+		long[] counts = new long[job.counters()]; 
+		int n = (int) Math.min(chunkTrials, trials - (long) chunk * chunkTrials); 
+		job.run(stream(chunk), n, counts); 
+		return counts; 
+	}
+
+	/**
+	 * The random stream of one chunk: a fresh generator seeded by mixing the run seed with the chunk index, 
+	 * the same way {@link SplittableRandom#split()} derives its children's seeds. 
+	 */
+	SplittableRandom stream(int chunk) {
+		long z = seed + (chunk + 1L) * 0x9E3779B97F4A7C15L; 
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L; 
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL; 
+		return new SplittableRandom(z ^ (z >>> 31)); 
+	}
+
+	/**
+	 * Adds {@code from} into {@code into}; each chunk's counts are its own, so reducing by mutation is safe. 
+	 */
+	private static long[] sum(long[] into, long[] from) {
+		for (int i = 0; i < from.length; i++) 
+			into[i] += from[i]; 
+		return into; 
+	}
+
+	private int resume(long[] counts) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpoint)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) 
+				throw new IOException(checkpoint + " is not a version " + VERSION + " checkpoint"); 
+			if (in.readLong() != seed || in.readLong() != trials || in.readInt() != chunkTrials 
+					|| !in.readUTF().equals(job.name()) || in.readInt() != counts.length) 
+				throw new IOException(checkpoint + " is a checkpoint of a different run"); 
+			int done = in.readInt(); 
+			for (int i = 0; i < counts.length; i++) 
+				counts[i] = in.readLong(); 
+			return done; 
+		}
+	}
+
+	private void save(long[] counts, int done) throws IOException {
+		Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp"); 
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+			out.writeInt(MAGIC); 
+			out.writeInt(VERSION); 
+			out.writeLong(seed); 
+			out.writeLong(trials); 
+			out.writeInt(chunkTrials); 
+			out.writeUTF(job.name()); 
+			out.writeInt(counts.length); 
+			out.writeInt(done); 
+			for (long count : counts) 
+				out.writeLong(count); 
+		}
+		Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE); 
+	}
+}
@@ -0,0 +1,29 @@
+package jobs;
+
+import java.util.SplittableRandom;
+
+/**
+ * A Monte Carlo job whose result is a fixed number of {@code long} counters summed over every trial, 
+ * run and checkpointed by a {@link JobRunner}. 
+ * 
+ * Counters are integers so that partial results add up to exactly the same totals in any order; 
+ * a job that needs fractions (split pots, say) should count in a common denominator. 
+ * 
+ * @author Patrick Wamsley
+ */
+public interface SimulationJob {
+
+	/**
+	 * Identifies this job and its parameters. A checkpoint is only resumed by a job with the same name, 
+	 * so it should change whenever the parameters do. 
+	 */
+	String name(); 
+
+	int counters(); 
+
+	/**
+	 * Runs {@code trials} trials drawing only from {@code random}, adding their results into {@code counts}. 
+	 * May be called concurrently from several threads, each with its own random and counts. 
+	 */
+	void run(SplittableRandom random, int trials, long[] counts); 
+}
@@ -0,0 +1,281 @@
+package server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import equity.EquityCalculator;
+import equity.Range;
+import game_components.Cards;
+import game_components.EvaluatorBootstrap;
+import game_components.HandEvaluator;
+import game_components.HandStrength;
+
+/**
+ * Embedded HTTP service for hand evaluation and equity. 
+ * 
+ * <pre>
+ * GET /evaluate?cards=AsKdQhJcTs9d8h          {"strength":..., "handType":"STRAIGHT", "ranks":[...]} 
+ * GET /equity?hands=AsAd,KhKc&amp;board=2c7d9h      {"equity":[0.81, 0.19]} 
+ * GET /range?hero=QQ+,AK&amp;villain=22+&amp;board=...   {"equity":0.57} 
+ * </pre>
+ * 
+ * Parameters are percent-decoded only, so a {@code +} stays a literal plus as range notation needs, rather than 
+ * becoming a space as in form encoding. 
+ * 
+ * Only {@code maxInFlight} requests may be admitted at once; the rest are turned away immediately with 
+ * a 503 rather than queueing without bound. Admitted requests don't call the engine or block a thread, 
+ * they submit to a {@link RequestBatcher} per endpoint and are answered when it completes. Concurrent 
+ * queries thus share engine calls: evaluations run as one batched call, and identical equity queries 
+ * are computed once. The small handler pool only parses requests, so thousands can be outstanding. 
+ * 
+ * @author Patrick Wamsley
+ */
+public class EquityServer {
+
+	private static final int MAX_BATCH = 256; 
+	private static final int RANGE_SAMPLES = 20_000; 
+	private static final long TIMEOUT_MILLIS = 30_000; 
+
+	private final HttpServer http; 
+	private final ExecutorService pool; 
+	private final Semaphore admission; 
+	private final ScheduledExecutorService timer; 
+
+	private final RequestBatcher<Long, Integer> evaluations; 
+	private final RequestBatcher<String, double[]> equities; 
+	private final RequestBatcher<String, double[]> rangeEquities; 
+
+	public EquityServer(int port, int threads, int maxInFlight) throws IOException {
+
+		int engines = Runtime.getRuntime().availableProcessors(); 
+		admission = new Semaphore(maxInFlight); 
+		evaluations = new RequestBatcher<>("evaluate", 1, MAX_BATCH, EquityServer::evaluateBatch); 
+		equities = new RequestBatcher<>("equity", engines, MAX_BATCH, distinct(EquityServer::equity)); 
+		rangeEquities = new RequestBatcher<>("range", engines, MAX_BATCH, distinct(EquityServer::rangeEquity)); 
+
+		timer = Executors.newSingleThreadScheduledExecutor(); 
+		pool = Executors.newFixedThreadPool(threads); 
+		http = HttpServer.create(new InetSocketAddress(port), maxInFlight); 
+		http.setExecutor(pool); 
+		http.createContext("/evaluate", admitted(this::evaluate)); 
+		http.createContext("/equity", admitted(this::equity)); 
+		http.createContext("/range", admitted(this::range)); 
+	}
+
+	public void start() {
+		http.start(); 
+	}
+
+	public void stop() {
+		http.stop(0); 
+		pool.shutdownNow(); 
+		timer.shutdownNow(); 
+		evaluations.close(); 
+		equities.close(); 
+		rangeEquities.close(); 
+	}
+
+	public int port() {
+		return http.getAddress().getPort(); 
+	}
+
+	private interface Endpoint {
+		CompletableFuture<String> respond(Map<String, String> params); 
+	}
+
+	/**
+	 * Wraps an endpoint with admission control. The handler returns as soon as the query is submitted, 
+	 * and the response is written by whichever thread completes it, so waiting requests hold no thread. 
+	 * A request that times out is answered with a 504 straight away, but keeps its permit until its 
+	 * engine work is done, so {@code maxInFlight} bounds the work under way and not just the open requests. 
+	 */
+	private HttpHandler admitted(Endpoint endpoint) {
+		return exchange -> {
+			if (!admission.tryAcquire()) {
+				exchange.getResponseHeaders().add("Retry-After", "1"); 
+				send(exchange, 503, "{\"error\":\"overloaded\"}"); 
+				return; 
+			}
+
+			CompletableFuture<String> work; 
+			try {
+				work = endpoint.respond(params(exchange)); 
+			} catch (RuntimeException e) {
+				work = new CompletableFuture<>(); 
+				work.completeExceptionally(e); 
+			}
+
+			CompletableFuture<String> reply = new CompletableFuture<>(); 
+			ScheduledFuture<?> timeout = timer.schedule(
+					() -> reply.completeExceptionally(new TimeoutException()), TIMEOUT_MILLIS, TimeUnit.MILLISECONDS); 
+			work.whenComplete((body, failure) -> {
+				timeout.cancel(false); 
+				admission.release(); 
+				if (failure == null) 
+					reply.complete(body); 
+				else 
+					reply.completeExceptionally(failure); 
+			}); 
+
+			reply.whenComplete((body, failure) -> {
+				try {
+					if (failure == null) 
+						send(exchange, 200, body); 
+					else 
+						fail(exchange, failure instanceof CompletionException ? failure.getCause() : failure); 
+				} catch (IOException e) {
+					exchange.close(); 
+				}
+			}); 
+		}; 
+	}
+
+	private CompletableFuture<String> evaluate(Map<String, String> params) {
+		long cards = Cards.parse(required(params, "cards")); 
+		if (Long.bitCount(cards) < 5 || Long.bitCount(cards) > 7) 
+			throw new IllegalArgumentException("Evaluate takes 5 to 7 cards"); 
+
+		return evaluations.submit(cards).thenApply(strength -> {
+			int[] ranks = HandStrength.toMadeHand(strength).highCardRankings; 
+			return "{\"strength\":" + strength + ",\"handType\":\"" + HandStrength.handType(strength) 
+					+ "\",\"ranks\":" + Arrays.toString(ranks).replace(" ", "") + "}"; 
+		}); 
+	}
+
+	private CompletableFuture<String> equity(Map<String, String> params) {
+		String query = required(params, "hands") + "|" + params.getOrDefault("board", ""); 
+		return equities.submit(query).thenApply(shares -> "{\"equity\":" + Arrays.toString(shares).replace(" ", "") + "}"); 
+	}
+
+	private CompletableFuture<String> range(Map<String, String> params) {
+		String query = required(params, "hero") + "|" + required(params, "villain") + "|" + params.getOrDefault("board", ""); 
+		return rangeEquities.submit(query).thenApply(equity -> "{\"equity\":" + equity[0] + "}"); 
+	}
+
+	private static List<Integer> evaluateBatch(List<Long> cards) {
+		long[] masks = new long[cards.size()]; 
+		for (int i = 0; i < masks.length; i++) 
+			masks[i] = cards.get(i); 
+
+		int[] strengths = new int[masks.length]; 
+		HandEvaluator.evaluateStrengths(masks, strengths, masks.length); 
+
+		List<Integer> results = new ArrayList<>(strengths.length); 
+		for (int s : strengths) 
+			results.add(s); 
+		return results; 
+	}
+
+	private static double[] equity(String query) {
+		String[] parts = query.split("\\|", -1); 
+		String[] hands = parts[0].split(","); 
+		long[] holes = new long[hands.length]; 
+		for (int i = 0; i < hands.length; i++) 
+			holes[i] = Cards.parse(hands[i]); 
+		return EquityCalculator.equity(holes, Cards.parse(parts[1])); 
+	}
+
+	private static double[] rangeEquity(String query) {
+		String[] parts = query.split("\\|", -1); 
+		return new double[] {EquityCalculator.rangeEquity(Range.parse(parts[0]), Range.parse(parts[1]), 
+				Cards.parse(parts[2]), RANGE_SAMPLES, parts[2].hashCode())}; 
+	}
+
+	/**
+	 * Lifts a single query computation into a batch handler that computes each distinct query in the batch once. 
+	 */
+	private static <R> RequestBatcher.BatchHandler<String, R> distinct(java.util.function.Function<String, R> compute) {
+		return queries -> {
+			Map<String, R> computed = new HashMap<>(); 
+			List<R> results = new ArrayList<>(queries.size()); 
+			for (String q : queries) 
+				results.add(computed.computeIfAbsent(q, compute)); 
+			return results; 
+		}; 
+	}
+
+	private static Map<String, String> params(HttpExchange exchange) throws UnsupportedEncodingException {
+		Map<String, String> params = new HashMap<>(); 
+		String query = exchange.getRequestURI().getRawQuery(); 
+		if (query == null) 
+			return params; 
+		for (String pair : query.split("&")) {
+			int eq = pair.indexOf('='); 
+			if (eq > 0) 
+				params.put(decode(pair.substring(0, eq)), decode(pair.substring(eq + 1))); 
+		}
+		return params; 
+	}
+
+	/**
+	 * Percent-decodes a query component, keeping {@code +} as itself ({@code QQ+} is a range, not {@code "QQ "}). 
+	 */
+	private static String decode(String component) throws UnsupportedEncodingException {
+		return URLDecoder.decode(component.replace("+", "%2B"), "UTF-8"); 
+	}
+
+	private static String required(Map<String, String> params, String name) {
+		String value = params.get(name); 
+		if (value == null) 
+			throw new IllegalArgumentException("Missing parameter " + name); 
+		return value; 
+	}
+
+	private static void fail(HttpExchange exchange, Throwable failure) throws IOException {
+		if (failure instanceof IllegalArgumentException) 
+			send(exchange, 400, error(failure)); 
+		else if (failure instanceof TimeoutException) 
+			send(exchange, 504, "{\"error\":\"timed out\"}"); 
+		else 
+			send(exchange, 500, error(failure)); 
+	}
+
+	private static String error(Throwable e) {
+		return "{\"error\":\"" + String.valueOf(e.getMessage()).replace("\\", "\\\\").replace("\"", "\\\"") + "\"}"; 
+	}
+
+	private static void send(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8); 
+		exchange.getResponseHeaders().add("Content-Type", "application/json"); 
+		exchange.sendResponseHeaders(status, bytes.length); 
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes); 
+		}
+	}
+
+	/**
+	 * Usage: {@code EquityServer [port] [threads] [max in flight]} 
+	 */
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080; 
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8; 
+		int maxInFlight = args.length > 2 ? Integer.parseInt(args[2]) : 4_000; 
+
+		long warmup = EvaluatorBootstrap.warmup(); 
+		EquityServer server = new EquityServer(port, threads, maxInFlight); 
+		server.start(); 
+		System.out.printf("Serving on port %d (warmed up in %.0f ms)%n", server.port(), warmup / 1e6); 
+	}
+}
@@ -0,0 +1,107 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Coalesces concurrently submitted queries into batches for one engine call. 
+ * 
+ * Worker threads block until a query arrives, then drain whatever else is already queued (up to 
+ * {@code maxBatch}) and hand the lot to the {@link BatchHandler}. An idle batcher therefore adds no 
+ * latency, while a busy one amortizes the engine call over everything that piled up behind it. 
+ * 
+ * If the handler throws, the batch is retried one query at a time, so a bad query fails only its 
+ * own request and not everything that happened to be batched with it. 
+ * 
+ * @author Patrick Wamsley
+ */
+public final class RequestBatcher<Q, R> {
+
+	public interface BatchHandler<Q, R> {
+		/**
+		 * Returns one result per query, in order. 
+		 */
+		List<R> handle(List<Q> queries); 
+	}
+
+	private static final class Pending<Q, R> {
+		final Q query; 
+		final CompletableFuture<R> result = new CompletableFuture<>(); 
+
+		Pending(Q query) {
+			this.query = query; 
+		}
+	}
+
+	private final BlockingQueue<Pending<Q, R>> queue = new LinkedBlockingQueue<>(); 
+	private final BatchHandler<Q, R> handler; 
+	private final int maxBatch; 
+	private final Thread[] workers; 
+
+	public RequestBatcher(String name, int workers, int maxBatch, BatchHandler<Q, R> handler) {
+		this.handler = handler; 
+		this.maxBatch = maxBatch; 
+		this.workers = new Thread[workers]; 
+		for (int i = 0; i < workers; i++) {
+			this.workers[i] = new Thread(this::drain, name + "-batcher-" + i); 
+			this.workers[i].setDaemon(true); 
+			this.workers[i].start(); 
+		}
+	}
+
+	public CompletableFuture<R> submit(Q query) {
+		Pending<Q, R> pending = new Pending<>(query); 
+		queue.add(pending); 
+		return pending.result; 
+	}
+
+	public void close() {
+		for (Thread worker : workers) 
+			worker.interrupt(); 
+	}
+
+	private void drain() {
+
+		List<Pending<Q, R>> batch = new ArrayList<>(maxBatch); 
+		List<Q> queries = new ArrayList<>(maxBatch); 
+
+		while (!Thread.currentThread().isInterrupted()) {
+			try {
+				batch.add(queue.take()); 
+			} catch (InterruptedException e) {
+				return; 
+			}
+			queue.drainTo(batch, maxBatch - 1); 
+
+			for (Pending<Q, R> p : batch) 
+				queries.add(p.query); 
+
+			try {
+				List<R> results = handler.handle(queries); 
+				for (int i = 0; i < batch.size(); i++) 
+					batch.get(i).result.complete(results.get(i)); 
+			} catch (RuntimeException e) {
+				if (batch.size() == 1) 
+					batch.get(0).result.completeExceptionally(e); 
+				else 
+					for (Pending<Q, R> p : batch) 
+						handleAlone(p); 
+			}
+
+			batch.clear(); 
+			queries.clear(); 
+		}
+	}
+
+	private void handleAlone(Pending<Q, R> pending) {
+		try {
+			pending.result.complete(handler.handle(Collections.singletonList(pending.query)).get(0)); 
+		} catch (RuntimeException e) {
+			pending.result.completeExceptionally(e); 
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package sim;
+
+/**
+ * A betting strategy. Bots are asked to act whenever it is their turn, and are only ever used 
+ * by one table, so they may keep state between calls. 
+ * 
+ * @author Patrick Wamsley
+ */
+public interface Bot {
+
+	int FOLD = -1; 
+
+	/**
+	 * Returns {@link #FOLD}, or the total the bot wants to have committed this betting round. 
+	 * Anything up to {@link Situation#currentBet} checks or calls, anything above raises (to at least 
+	 * {@link Situation#minRaiseTo}), and anything beyond the bot's stack is all in. Folding when 
+	 * there is nothing to call checks instead, and raising when {@link Situation#canRaise()} is false calls. 
+	 */
+	int act(Situation s); 
+}
@@ -0,0 +1,14 @@
+package sim;
+
+/**
+ * Checks or calls every bet, never raises or folds. 
+ * 
+ * @author Patrick Wamsley
+ */
+public class CallingStation implements Bot {
+
+	@Override
+	public int act(Situation s) {
+		return s.currentBet(); 
+	}
+}
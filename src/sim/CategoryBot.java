@@ -0,0 +1,53 @@
+package sim;
+
+import game_components.Card;
+import game_components.Cards;
+import game_components.HandEvaluator.HandType;
+import game_components.Ruleset;
+
+/**
+ * A simple tight-aggressive strategy driven by made hand category. 
+ * 
+ * Preflop it raises pairs and two broadway cards to three big blinds (or three times a raise), calls 
+ * one raise with suited or connected cards above seven, and folds the rest. After the flop it bets 
+ * three quarters of the pot with two pair or better, calls with a pair if the bet is at most half 
+ * the pot, and otherwise checks or folds. 
+ * 
+ * @author Patrick Wamsley
+ */
+public class CategoryBot implements Bot {
+
+	@Override
+	public int act(Situation s) {
+		return s.street() == null ? preflop(s) : postflop(s); 
+	}
+
+	private int preflop(Situation s) {
+		long hole = s.hole(); 
+		int high = Cards.highestCard(hole), low = Cards.lowestCard(hole); 
+		int highRank = high % 13 + Card.TWO, lowRank = low % 13 + Card.TWO; 
+		if (highRank < lowRank) {
+			int t = highRank; 
+			highRank = lowRank; 
+			lowRank = t; 
+		}
+
+		boolean raised = s.currentBet() > s.bigBlind(); 
+		if (highRank == lowRank || lowRank >= Card.TEN) 
+			return Math.max(s.minRaiseTo(), 3 * s.currentBet()); 
+		boolean suited = high / 13 == low / 13; 
+		boolean playable = lowRank > Card.SEVEN && (suited || highRank - lowRank == 1); 
+		if (playable && s.currentBet() <= 3 * s.bigBlind()) 
+			return s.currentBet(); 
+		return raised || s.toCall() > 0 ? FOLD : s.currentBet(); 
+	}
+
+	private int postflop(Situation s) {
+		HandType category = Ruleset.HOLDEM.category(s.hole() | s.board()); 
+		if (Ruleset.HOLDEM.compare(category, HandType.TWO_PAIR) >= 0) 
+			return Math.max(s.minRaiseTo(), s.currentBet() + s.pot() * 3 / 4); 
+		if (category == HandType.PAIR && s.toCall() * 2 <= s.pot()) 
+			return s.currentBet(); 
+		return FOLD; 
+	}
+}
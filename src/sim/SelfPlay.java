@@ -0,0 +1,126 @@
+package sim;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Runs bots against each other on independent tables, one per core by default, and reports each 
+ * seat's win rate in big blinds per 100 hands with a 95% confidence interval. 
+ * 
+ * Table {@code t} draws its cards from the {@code t}'th stream split off a {@link SplittableRandom} 
+ * seeded with {@code seed}, so a run is reproducible for a given seed, table count and hand count 
+ * no matter how the tables are scheduled onto threads. 
+ * 
+ * @author Patrick Wamsley
+ */
+public final class SelfPlay {
+
+	private final List<Supplier<? extends Bot>> seats; 
+	private final int smallBlind, bigBlind; 
+	private final int[] startingStacks; 
+
+	/**
+	 * @param seats one supplier per seat; each table gets its own bots 
+	 */
+	public SelfPlay(List<Supplier<? extends Bot>> seats, int smallBlind, int bigBlind, int startingStack) {
+		this(seats, smallBlind, bigBlind, equalStacks(seats.size(), startingStack)); 
+	}
+
+	/**
+	 * @param startingStacks each seat's stack at the start of every hand 
+	 */
+	public SelfPlay(List<Supplier<? extends Bot>> seats, int smallBlind, int bigBlind, int[] startingStacks) {
+		if (seats.size() < 2 || seats.size() > 10 || startingStacks.length != seats.size()) 
+			throw new IllegalArgumentException("Tables seat 2 to 10 players, with a starting stack each"); 
+		this.seats = seats; 
+		this.smallBlind = smallBlind; 
+		this.bigBlind = bigBlind; 
+		this.startingStacks = startingStacks.clone(); 
+	}
+
+	private static int[] equalStacks(int seats, int stack) {
+		int[] stacks = new int[seats]; 
+		Arrays.fill(stacks, stack); 
+		return stacks; 
+	}
+
+	public Result run(long hands, long seed) {
+		return run(hands, Runtime.getRuntime().availableProcessors(), seed); 
+	}
+
+	/**
+	 * Plays {@code hands} hands in total, spread over {@code tables} tables run in parallel. 
+	 */
+	public Result run(long hands, int tables, long seed) {
+
+		SplittableRandom root = new SplittableRandom(seed); 
+		SplittableRandom[] streams = new SplittableRandom[tables]; 
+		for (int t = 0; t < tables; t++) 
+			streams[t] = root.split(); 
+
+		List<Table> played = IntStream.range(0, tables).parallel().mapToObj(t -> {
+			Bot[] bots = new Bot[seats.size()]; 
+			for (int p = 0; p < bots.length; p++) 
+				bots[p] = seats.get(p).get(); 
+			Table table = new Table(bots, smallBlind, bigBlind, startingStacks, streams[t]); 
+			table.play(hands / tables + (t < hands % tables ? 1 : 0)); 
+			return table; 
+		}).collect(Collectors.toList()); 
+
+		Result result = new Result(seats.size(), bigBlind); 
+		for (Table table : played) {
+			result.hands += table.hands; 
+			for (int p = 0; p < seats.size(); p++) {
+				result.won[p] += table.won[p]; 
+				result.wonSquared[p] += table.wonSquared[p]; 
+			}
+		}
+		return result; 
+	}
+
+	/**
+	 * Per seat win rates over a run. 
+	 */
+	public static final class Result {
+
+		private final int bigBlind; 
+		private final long[] won; 
+		private final double[] wonSquared; 
+		private long hands; 
+
+		Result(int seats, int bigBlind) {
+			this.bigBlind = bigBlind; 
+			this.won = new long[seats]; 
+			this.wonSquared = new double[seats]; 
+		}
+
+		public long hands() {
+			return hands; 
+		}
+
+		public double bbPer100(int seat) {
+			return 100.0 * won[seat] / hands / bigBlind; 
+		}
+
+		/**
+		 * Half width of the 95% confidence interval around {@link #bbPer100(int)}. 
+		 */
+		public double confidence95(int seat) {
+			double mean = (double) won[seat] / hands; 
+			double variance = wonSquared[seat] / hands - mean * mean; 
+			return 1.96 * Math.sqrt(variance / hands) * 100 / bigBlind; 
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder(hands + " hands"); 
+			for (int p = 0; p < won.length; p++) 
+				sb.append(String.format("%nseat %d: %+.2f bb/100 +/- %.2f", p, bbPer100(p), confidence95(p))); 
+			return sb.toString(); 
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package sim;
+
+import game_components.Street;
+
+/**
+ * What a {@link Bot} can see when it is asked to act. A table fills in one instance 
+ * and reuses it for every decision, so bots must not hold on to it. 
+ * 
+ * @author Patrick Wamsley
+ */
+public final class Situation {
+
+	int seat, players, activePlayers; 
+	Street street; 
+	long hole, board; 
+	int pot, currentBet, minRaiseTo, committed, stack, bigBlind; 
+	boolean mayRaise; 
+
+	Situation() {}
+
+	public int seat() {
+		return seat; 
+	}
+
+	public int players() {
+		return players; 
+	}
+
+	/**
+	 * Players who haven't folded, including this one. 
+	 */
+	public int activePlayers() {
+		return activePlayers; 
+	}
+
+	/**
+	 * The street being bet, or null before the flop. 
+	 */
+	public Street street() {
+		return street; 
+	}
+
+	public long hole() {
+		return hole; 
+	}
+
+	/**
+	 * The community cards dealt so far, as a card mask. 
+	 */
+	public long board() {
+		return board; 
+	}
+
+	/**
+	 * Every chip put in this hand, including this round's bets. 
+	 */
+	public int pot() {
+		return pot; 
+	}
+
+	/**
+	 * The most anyone has committed this betting round. 
+	 */
+	public int currentBet() {
+		return currentBet; 
+	}
+
+	public int minRaiseTo() {
+		return minRaiseTo; 
+	}
+
+	/**
+	 * False when this player has acted already and has since only faced an all-in too short to be a 
+	 * full raise. Betting isn't reopened for them, so they may only call or fold. 
+	 */
+	public boolean canRaise() {
+		return mayRaise; 
+	}
+
+	/**
+	 * What this player has committed this betting round. 
+	 */
+	public int committed() {
+		return committed; 
+	}
+
+	/**
+	 * Chips this player has left behind. 
+	 */
+	public int stack() {
+		return stack; 
+	}
+
+	public int toCall() {
+		return Math.min(currentBet - committed, stack); 
+	}
+
+	public int bigBlind() {
+		return bigBlind; 
+	}
+}
@@ -0,0 +1,321 @@
+package sim;
+
+import java.util.SplittableRandom;
+
+import game_components.Card;
+import game_components.HandEvaluator;
+import game_components.Street;
+import game_components.UnmadeHand;
+
+/**
+ * One no-limit table playing hand after hand among a fixed set of bots. 
+ * 
+ * Every hand starts each seat from its own starting stack, so results are independent per hand, and the 
+ * button (on seat 0 for the first hand) moves each hand so every bot plays every position. All per-hand 
+ * state lives in arrays allocated once, and showdowns reuse one {@link UnmadeHand} per seat, so the loop 
+ * itself allocates nothing. 
+ * 
+ * Raises must be at least the previous raise. An all-in short of that doesn't reopen the betting: 
+ * players who had already acted may only call or fold, while those yet to act may still raise. 
+ * Pots are split into side pots by how much each player put in, with odd chips going to the first 
+ * winner after the button. 
+ * 
+ * @author Patrick Wamsley
+ */
+public final class Table {
+
+	private final int n, smallBlind, bigBlind; 
+	private final int[] startingStacks; 
+	private final Bot[] bots; 
+	private final SplittableRandom random; 
+
+	private final int[] deck = new int[52]; 
+	private final long[] holes; 
+	private final int[] runout = new int[5]; 
+	private final int[] stack, committed, invested, strength; 
+	private final boolean[] folded, acted; 
+	private final UnmadeHand[] showdown; 
+	private final Situation situation = new Situation(); 
+
+	private int button; 
+	private long board; 
+
+	/** per seat totals of chips won, and of their squares, over every hand played */
+	final long[] won; 
+	final double[] wonSquared; 
+	long hands; 
+
+	/**
+	 * @param startingStacks each seat's stack at the start of every hand 
+	 */
+	public Table(Bot[] bots, int smallBlind, int bigBlind, int[] startingStacks, SplittableRandom random) {
+		if (bots.length < 2 || bots.length > 10 || startingStacks.length != bots.length) 
+			throw new IllegalArgumentException("Tables seat 2 to 10 players, with a starting stack each"); 
+		this.n = bots.length; 
+		this.bots = bots; 
+		this.smallBlind = smallBlind; 
+		this.bigBlind = bigBlind; 
+		this.startingStacks = startingStacks.clone(); 
+		this.random = random; 
+
+		for (int c = 0; c < deck.length; c++) 
+			deck[c] = c; 
+		holes = new long[n]; 
+		stack = new int[n]; 
+		committed = new int[n]; 
+		invested = new int[n]; 
+		strength = new int[n]; 
+		folded = new boolean[n]; 
+		acted = new boolean[n]; 
+		showdown = new UnmadeHand[n]; 
+		for (int p = 0; p < n; p++) 
+			showdown[p] = new UnmadeHand(); 
+		won = new long[n]; 
+		wonSquared = new double[n]; 
+	}
+
+	public void play(long count) {
+		for (long h = 0; h < count; h++) 
+			playHand(); 
+	}
+
+	/**
+	 * Plays one hand with freshly shuffled cards. 
+	 */
+	public void playHand() {
+
+		//only the cards actually dealt need shuffling
+		int dealt = 2 * n + 5; 
+		for (int i = 0; i < dealt; i++) {
+			int j = i + random.nextInt(deck.length - i); 
+			int t = deck[i]; 
+			deck[i] = deck[j]; 
+			deck[j] = t; 
+		}
+
+		for (int p = 0; p < n; p++) 
+			holes[p] = 1L << deck[2 * p] | 1L << deck[2 * p + 1]; 
+		System.arraycopy(deck, 2 * n, runout, 0, 5); 
+		play(); 
+	}
+
+	/**
+	 * Plays one hand with the given hole cards and five card board instead of shuffled ones, to replay 
+	 * a particular hand. The board is revealed lowest card index first. 
+	 */
+	public void playHand(long[] holes, long board) {
+		if (holes.length != n || Long.bitCount(board) != 5) 
+			throw new IllegalArgumentException("Need one hole per seat and a five card board"); 
+		long dealt = board; 
+		for (long hole : holes) {
+			if (Long.bitCount(hole) != 2 || (hole & dealt) != 0) 
+				throw new IllegalArgumentException("Hole cards must be two cards each, not overlapping each other or the board"); 
+			dealt |= hole; 
+		}
+
+		System.arraycopy(holes, 0, this.holes, 0, n); 
+		for (int c = 0; c < 5; c++, board &= board - 1) 
+			runout[c] = Long.numberOfTrailingZeros(board); 
+		play(); 
+	}
+
+	/**
+	 * Chips {@code seat} won (or, if negative, lost) in the last hand played. 
+	 */
+	public int lastResult(int seat) {
+		return stack[seat] - startingStacks[seat]; 
+	}
+
+	private void play() {
+
+		for (int p = 0; p < n; p++) {
+			stack[p] = startingStacks[p]; 
+			invested[p] = 0; 
+			folded[p] = false; 
+		}
+		board = 0L; 
+
+		int small = n == 2 ? button : next(button); 
+		int big = next(small); 
+		clearRound(); 
+		post(small, smallBlind); 
+		post(big, bigBlind); 
+
+		bettingRound(null, next(big), bigBlind); 
+		for (Street street : Street.values()) {
+			if (activePlayers() == 1) 
+				break; 
+			for (int c = street == Street.FLOP ? 0 : street.boardCards - 1; c < street.boardCards; c++) 
+				board |= 1L << runout[c]; 
+			clearRound(); 
+			if (playersWhoCanAct() >= 2) 
+				bettingRound(street, next(button), 0); 
+		}
+
+		settle(); 
+
+		for (int p = 0; p < n; p++) {
+			long result = lastResult(p); 
+			won[p] += result; 
+			wonSquared[p] += (double) result * result; 
+		}
+		hands++; 
+		button = next(button); 
+	}
+
+	private void bettingRound(Street street, int first, int currentBet) {
+
+		int minRaise = bigBlind; 
+		int seat = first; 
+
+		while (activePlayers() > 1 && !roundOver(currentBet)) {
+			if (canAct(seat) && !(acted[seat] && committed[seat] == currentBet)) {
+				//acted flags are only cleared by a full raise, so having acted means only a short all-in came since
+				boolean mayRaise = !acted[seat]; 
+				int decision = bots[seat].act(describe(seat, street, currentBet, minRaise, mayRaise)); 
+				int toCall = currentBet - committed[seat]; 
+
+				if (decision == Bot.FOLD && toCall > 0) {
+					folded[seat] = true; 
+				} else {
+					int allIn = committed[seat] + stack[seat]; 
+					int target = Math.min(Math.max(decision, currentBet), allIn); 
+					if (!mayRaise) 
+						target = Math.min(target, currentBet); 
+					else if (target > currentBet && target < currentBet + minRaise) 
+						target = Math.min(currentBet + minRaise, allIn); 
+
+					if (target - currentBet >= minRaise) {
+						minRaise = target - currentBet; 
+						for (int p = 0; p < n; p++) 
+							acted[p] = false; 
+					}
+					currentBet = Math.max(currentBet, target); 
+					put(seat, target - committed[seat]); 
+				}
+				acted[seat] = true; 
+			}
+			seat = next(seat); 
+		}
+	}
+
+	private boolean roundOver(int currentBet) {
+		for (int p = 0; p < n; p++) 
+			if (canAct(p) && (!acted[p] || committed[p] < currentBet)) 
+				return false; 
+		return true; 
+	}
+
+	private Situation describe(int seat, Street street, int currentBet, int minRaise, boolean mayRaise) {
+		Situation s = situation; 
+		s.seat = seat; 
+		s.players = n; 
+		s.activePlayers = activePlayers(); 
+		s.street = street; 
+		s.hole = holes[seat]; 
+		s.board = board; 
+		s.pot = pot(); 
+		s.currentBet = currentBet; 
+		s.minRaiseTo = currentBet + minRaise; 
+		s.mayRaise = mayRaise; 
+		s.committed = committed[seat]; 
+		s.stack = stack[seat]; 
+		s.bigBlind = bigBlind; 
+		return s; 
+	}
+
+	/**
+	 * Pays out the main pot and each side pot, layer by layer of what players put in. 
+	 */
+	private void settle() {
+
+		for (int p = 0; p < n; p++) {
+			if (!folded[p]) {
+				UnmadeHand hand = showdown[p].clear(); 
+				for (long cards = holes[p] | board; cards != 0; cards &= cards - 1) 
+					hand.addCard(Card.fromIndex(Long.numberOfTrailingZeros(cards))); 
+				strength[p] = HandEvaluator.evaluateStrength(hand); 
+			}
+		}
+
+		int paidTo = 0; 
+		while (true) {
+			int level = Integer.MAX_VALUE; 
+			for (int p = 0; p < n; p++) 
+				if (!folded[p] && invested[p] > paidTo) 
+					level = Math.min(level, invested[p]); 
+			if (level == Integer.MAX_VALUE) 
+				return; 
+
+			int pot = 0, best = Integer.MIN_VALUE, winners = 0; 
+			for (int p = 0; p < n; p++) {
+				pot += Math.max(0, Math.min(invested[p], level) - paidTo); 
+				if (!folded[p] && invested[p] >= level) {
+					if (strength[p] > best) {
+						best = strength[p]; 
+						winners = 1; 
+					} else if (strength[p] == best) {
+						winners++; 
+					}
+				}
+			}
+
+			int share = pot / winners, oddChips = pot % winners; 
+			for (int i = 0, p = next(button); i < n; i++, p = next(p)) {
+				if (!folded[p] && invested[p] >= level && strength[p] == best) {
+					stack[p] += share + oddChips; 
+					oddChips = 0; 
+				}
+			}
+			paidTo = level; 
+		}
+	}
+
+	private void post(int seat, int blind) {
+		put(seat, Math.min(blind, stack[seat])); 
+	}
+
+	private void put(int seat, int chips) {
+		stack[seat] -= chips; 
+		committed[seat] += chips; 
+		invested[seat] += chips; 
+	}
+
+	private void clearRound() {
+		for (int p = 0; p < n; p++) {
+			committed[p] = 0; 
+			acted[p] = false; 
+		}
+	}
+
+	private boolean canAct(int seat) {
+		return !folded[seat] && stack[seat] > 0; 
+	}
+
+	private int activePlayers() {
+		int active = 0; 
+		for (int p = 0; p < n; p++) 
+			if (!folded[p]) 
+				active++; 
+		return active; 
+	}
+
+	private int playersWhoCanAct() {
+		int count = 0; 
+		for (int p = 0; p < n; p++) 
+			if (canAct(p)) 
+				count++; 
+		return count; 
+	}
+
+	private int pot() {
+		int pot = 0; 
+		for (int p = 0; p < n; p++) 
+			pot += invested[p]; 
+		return pot; 
+	}
+
+	private int next(int seat) {
+		return seat + 1 == n ? 0 : seat + 1; 
+	}
+}
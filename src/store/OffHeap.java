@@ -0,0 +1,85 @@
+package store;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+
+/**
+ * Atomic access to off-heap memory by absolute address. 
+ * 
+ * Java 8 has no {@code VarHandle} or {@code MemorySegment}, so this binds the equivalent 
+ * {@code sun.misc.Unsafe} operations as method handles. Looking them up reflectively keeps the 
+ * rest of the tree free of compile time references to {@code sun.misc}, and {@code invokeExact} 
+ * on a {@code static final} handle compiles down to the intrinsic. 
+ * 
+ * @author Patrick Wamsley
+ */
+final class OffHeap {
+
+	private static final MethodHandle COMPARE_AND_SWAP, GET_VOLATILE, PUT_VOLATILE; 
+	private static final long BUFFER_ADDRESS; 
+
+	static {
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe"); 
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe"); 
+			theUnsafe.setAccessible(true); 
+			Object unsafe = theUnsafe.get(null); 
+			MethodHandles.Lookup lookup = MethodHandles.lookup(); 
+
+			COMPARE_AND_SWAP = lookup.findVirtual(unsafeClass, "compareAndSwapLong", 
+					MethodType.methodType(boolean.class, Object.class, long.class, long.class, long.class)).bindTo(unsafe); 
+			GET_VOLATILE = lookup.findVirtual(unsafeClass, "getLongVolatile", 
+					MethodType.methodType(long.class, Object.class, long.class)).bindTo(unsafe); 
+			PUT_VOLATILE = lookup.findVirtual(unsafeClass, "putLongVolatile", 
+					MethodType.methodType(void.class, Object.class, long.class, long.class)).bindTo(unsafe); 
+
+			MethodHandle fieldOffset = lookup.findVirtual(unsafeClass, "objectFieldOffset", 
+					MethodType.methodType(long.class, Field.class)).bindTo(unsafe); 
+			BUFFER_ADDRESS = (long) fieldOffset.invoke(Buffer.class.getDeclaredField("address")); 
+		} catch (Throwable e) {
+			throw new ExceptionInInitializerError(e); 
+		}
+	}
+
+	private OffHeap() {}
+
+	/**
+	 * Returns the base address of a direct (or mapped) buffer. 
+	 */
+	static long address(Buffer direct) {
+		if (!direct.isDirect()) 
+			throw new IllegalArgumentException("Only direct buffers have an address"); 
+		try {
+			return (long) GET_VOLATILE.invokeExact((Object) direct, BUFFER_ADDRESS); 
+		} catch (Throwable e) {
+			throw new IllegalStateException(e); 
+		}
+	}
+
+	static boolean compareAndSwap(long address, long expected, long update) {
+		try {
+			return (boolean) COMPARE_AND_SWAP.invokeExact((Object) null, address, expected, update); 
+		} catch (Throwable e) {
+			throw new IllegalStateException(e); 
+		}
+	}
+
+	static long getVolatile(long address) {
+		try {
+			return (long) GET_VOLATILE.invokeExact((Object) null, address); 
+		} catch (Throwable e) {
+			throw new IllegalStateException(e); 
+		}
+	}
+
+	static void putVolatile(long address, long value) {
+		try {
+			PUT_VOLATILE.invokeExact((Object) null, address, value); 
+		} catch (Throwable e) {
+			throw new IllegalStateException(e); 
+		}
+	}
+}
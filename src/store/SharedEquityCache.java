@@ -0,0 +1,39 @@
+package store;
+
+import abstraction.CanonicalHands;
+import equity.EquityCalculator;
+import equity.Range;
+
+/**
+ * Hand-vs-random-hand equity on a flop, turn or river, cached in a {@link SharedResultStore}. 
+ * 
+ * Spots are keyed by {@link CanonicalHands#canonicalKey(long, long)}, so every suit isomorph of a 
+ * spot shares one entry, and every JVM mapping the same store file shares the results, so a spot 
+ * is computed once per host rather than once per process. 
+ * 
+ * @author Patrick Wamsley
+ */
+public final class SharedEquityCache {
+
+	private final SharedResultStore store; 
+
+	public SharedEquityCache(SharedResultStore store) {
+		this.store = store; 
+	}
+
+	/**
+	 * Returns the all-in equity of {@code hole} against a uniformly random hand, over every runout of {@code board}. 
+	 */
+	public double equityVsRandom(long hole, long board) {
+		int cards = Long.bitCount(board); 
+		if (Long.bitCount(hole) != 2 || (hole & board) != 0 || cards < 3 || cards > 5) 
+			throw new IllegalArgumentException("Need two hole cards and a 3 to 5 card board, disjoint"); 
+
+		return store.computeIfAbsent(CanonicalHands.canonicalKey(hole, board), 
+				key -> compute(CanonicalHands.hole(key), CanonicalHands.board(key))); 
+	}
+
+	static double compute(long hole, long board) {
+		return EquityCalculator.rangeEquity(Range.of(hole), Range.all(), board, 0, 0L); 
+	}
+}
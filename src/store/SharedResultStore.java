@@ -0,0 +1,229 @@
+package store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongToDoubleFunction;
+
+/**
+ * A fixed size, memory-mapped hash table from {@code long} keys to {@code double} results, shared by 
+ * every JVM on the host that maps the same file. 
+ * 
+ * Slots are 16 bytes, a key then a value, probed linearly over a window of {@value #PROBES} slots. 
+ * Key 0 marks an empty slot. Results are stored xor'ed with {@link #PRESENT}, so value 0 decodes to NaN 
+ * and marks a claimed slot with no result yet; NaN can't be stored, and an evictor marks the slot it 
+ * is rewriting with a NaN carrying the time. Every value that isn't a published result thus reads as absent. 
+ * All slot updates are CAS operations on the mapped memory, with no locks: 
+ * <ul>
+ * <li>Inserting into an empty slot claims its key with a CAS from 0, then publishes the value with a CAS from 0. 
+ * A claimed slot's value only ever leaves 0 by being published or evicted, so if the claiming process dies 
+ * in between, the next put of that key publishes the (deterministic) result in its place. </li>
+ * <li>Once the window is full, a victim in it is evicted by CAS'ing its value to the evictor's own mark, then 
+ * CAS'ing its key to the new key and its value from the mark to the new value. Only the mark's holder changes 
+ * the key, so a key is never paired with another key's value. Marked slots are skipped, unless the mark is over 
+ * {@value #STALE_MILLIS} ms old and so was left by a dead process; unpublished slots may be evicted any time, 
+ * since their claimant's publish then just fails. </li>
+ * <li>Readers read the key, the value, then the key again, and only trust a value seen between two matching keys. </li>
+ * </ul>
+ * Since this is a cache of deterministic results, losing a race just means the result is computed again. 
+ * 
+ * @author Patrick Wamsley
+ */
+public final class SharedResultStore implements Closeable {
+
+	static final int MAGIC = 0x4E4C5253, VERSION = 1, HEADER_BYTES = 64, SLOT_BYTES = 16; 
+	static final int PROBES = 8; 
+	static final long PRESENT = 0x7FF8_0000_0000_0001L; 
+
+	/** exponent and quiet bit of a NaN, and the payload bits left for an evictor's mark */
+	private static final long NAN = 0x7FF8_0000_0000_0000L, PAYLOAD = 0x0007_FFFF_FFFF_FFFFL; 
+
+	/** an eviction takes nanoseconds, so a mark this old belongs to a process that died mid-write */
+	static final long STALE_MILLIS = 1_000; 
+
+	private final FileChannel channel; 
+	private final MappedByteBuffer mapped; 
+	private final long slotsAddress; 
+	private final long mask; 
+
+	private SharedResultStore(FileChannel channel, MappedByteBuffer mapped, int slots) {
+		this.channel = channel; 
+		this.mapped = mapped; 
+		this.slotsAddress = OffHeap.address(mapped) + HEADER_BYTES; 
+		this.mask = slots - 1; 
+	}
+
+	/**
+	 * Opens the store at {@code file}, creating it with {@code slots} slots (rounded up to a power of two) 
+	 * if it doesn't exist yet. An existing store keeps the size it was created with. 
+	 */
+	public static SharedResultStore open(Path file, int slots) throws IOException {
+
+		if (slots < PROBES || slots > (Integer.MAX_VALUE - HEADER_BYTES) / SLOT_BYTES) 
+			throw new IllegalArgumentException("Slot count out of range: " + slots); 
+		int size = Integer.highestOneBit(slots - 1) << 1; 
+
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE); 
+		try {
+			FileLock lock = channel.lock(); 
+			try {
+				MappedByteBuffer mapped; 
+				if (channel.size() == 0) {
+					mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) size * SLOT_BYTES); 
+					mapped.order(ByteOrder.nativeOrder()); 
+					mapped.putInt(8, size); 
+					mapped.putInt(4, VERSION); 
+					mapped.putInt(0, MAGIC); 
+					mapped.force(); 
+				} else {
+					if (channel.size() < HEADER_BYTES) 
+						throw new IOException(file + " is too short to be a result store"); 
+					mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()); 
+					mapped.order(ByteOrder.nativeOrder()); 
+					if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) 
+						throw new IOException(file + " is not a version " + VERSION + " result store"); 
+					size = mapped.getInt(8); 
+
+					//slots are addressed raw, so a bad header must never get as far as the constructor
+					if (size < PROBES || Integer.bitCount(size) != 1 || channel.size() < HEADER_BYTES + (long) size * SLOT_BYTES) 
+						throw new IOException(file + " is corrupt: its header claims " + size + " slots in " + channel.size() + " bytes"); 
+				}
+				return new SharedResultStore(channel, mapped, size); 
+			} finally {
+				lock.release(); 
+			}
+		} catch (IOException | RuntimeException e) {
+			channel.close(); 
+			throw e; 
+		}
+	}
+
+	public int slots() {
+		return (int) mask + 1; 
+	}
+
+	/**
+	 * Returns the result stored for {@code key}, or NaN if there is none. Keys must be non-zero. 
+	 */
+	public double get(long key) {
+		checkKey(key); 
+		long home = hash(key); 
+		for (int probe = 0; probe < PROBES; probe++) {
+			long slot = slotAddress(home + probe); 
+			long seen = OffHeap.getVolatile(slot); 
+			if (seen == 0) 
+				return Double.NaN; 
+			if (seen != key) 
+				continue; 
+			long value = OffHeap.getVolatile(slot + 8); 
+			if (OffHeap.getVolatile(slot) == key) 
+				return Double.longBitsToDouble(value ^ PRESENT); 
+			return Double.NaN; 
+		}
+		return Double.NaN; 
+	}
+
+	/**
+	 * Stores a result, evicting another key's if the probe window is full. 
+	 * Returns false if it gave up because of a concurrent writer. 
+	 */
+	public boolean put(long key, double result) {
+		checkKey(key); 
+		if (Double.isNaN(result)) 
+			throw new IllegalArgumentException("NaN means absent and can't be stored"); 
+		long value = Double.doubleToRawLongBits(result) ^ PRESENT; 
+
+		long home = hash(key); 
+		for (int probe = 0; probe < PROBES; probe++) {
+			long slot = slotAddress(home + probe); 
+			long seen = OffHeap.getVolatile(slot); 
+			if (seen == 0 && OffHeap.compareAndSwap(slot, 0, key)) 
+				return publish(slot, value); 
+			//already ours, or someone else claimed it first for this very key
+			if (seen == key || OffHeap.getVolatile(slot) == key) 
+				return publish(slot, value); 
+		}
+
+		//window is full: evict a victim picked by the key's high hash bits. 
+		//Whoever holds the slot's current mark is the only one who may change its key. 
+		long slot = slotAddress(home + (mix(key) >>> 61)); 
+		long victimValue = OffHeap.getVolatile(slot + 8); 
+		long now = System.currentTimeMillis(); 
+		if (isMark(victimValue) && now - markTime(victimValue) < STALE_MILLIS) 
+			return false; 
+		long victimKey = OffHeap.getVolatile(slot); 
+		long mark = (NAN | now & PAYLOAD) ^ PRESENT; 
+		return OffHeap.compareAndSwap(slot + 8, victimValue, mark) 
+				&& OffHeap.compareAndSwap(slot, victimKey, key) 
+				&& OffHeap.compareAndSwap(slot + 8, mark, value); 
+	}
+
+	/**
+	 * Publishes a value into a slot holding its key. The value is only still 0 if its claimant hasn't 
+	 * published yet or died before it could, and either way the result is the same, so anyone may. 
+	 */
+	private static boolean publish(long slot, long value) {
+		return OffHeap.compareAndSwap(slot + 8, 0, value) || OffHeap.getVolatile(slot + 8) == value; 
+	}
+
+	/**
+	 * Returns the stored result for {@code key}, computing and storing it first if there is none. 
+	 */
+	public double computeIfAbsent(long key, LongToDoubleFunction compute) {
+		double result = get(key); 
+		if (Double.isNaN(result)) {
+			result = compute.applyAsDouble(key); 
+			put(key, result); 
+		}
+		return result; 
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close(); 
+	}
+
+	/**
+	 * Flushes the mapping to disk, so the results outlive every process that uses them. 
+	 */
+	public void force() {
+		mapped.force(); 
+	}
+
+	private static boolean isMark(long value) {
+		return value != 0 && Double.isNaN(Double.longBitsToDouble(value ^ PRESENT)); 
+	}
+
+	private static long markTime(long mark) {
+		return (mark ^ PRESENT) & PAYLOAD; 
+	}
+
+	private long slotAddress(long slot) {
+		return slotsAddress + (slot & mask) * SLOT_BYTES; 
+	}
+
+	private long hash(long key) {
+		return mix(key) & mask; 
+	}
+
+	/**
+	 * MurmurHash3's 64 bit finalizer. 
+	 */
+	private static long mix(long key) {
+		key ^= key >>> 33; 
+		key *= 0xFF51AFD7ED558CCDL; 
+		key ^= key >>> 33; 
+		key *= 0xC4CEB9FE1A85EC53L; 
+		return key ^ key >>> 33; 
+	}
+
+	private static void checkKey(long key) {
+		if (key == 0) 
+			throw new IllegalArgumentException("Key 0 marks empty slots"); 
+	}
+}
@@ -0,0 +1,144 @@
+package test_bed;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+import abstraction.AbstractionGenerator;
+import abstraction.BucketTable;
+import abstraction.CanonicalHands;
+import abstraction.RiverEquity;
+import game_components.Cards;
+import game_components.Ruleset;
+import game_components.Street;
+
+public class AbstractionTests {
+
+	//every ordering of the four suits
+	private static final int[][] PERMUTATIONS = permutations(); 
+
+	@Test
+	public void canonicalCounts() {
+		assertEquals(CanonicalHands.boards(Street.FLOP).length, 1755);
+		assertEquals(CanonicalHands.boards(Street.TURN).length, 16432);
+		assertEquals(new AbstractionGenerator(Street.FLOP, 2).handCount(), 1286792);
+		assertEquals(new AbstractionGenerator(Street.TURN, 2).handCount(), 13960050);
+	}
+
+	@Test
+	public void canonicalKeyIgnoresSuits() {
+		SplittableRandom random = new SplittableRandom(3); 
+		for (int trial = 0; trial < 2000; trial++) {
+			long cards = deal(random, 2 + 3 + trial % 3); 
+			long hole = 1L << Cards.lowestCard(cards) | 1L << Cards.highestCard(cards); 
+			long board = cards & ~hole; 
+
+			long key = CanonicalHands.canonicalKey(hole, board); 
+			assertTrue(CanonicalHands.isCanonical(CanonicalHands.hole(key), CanonicalHands.board(key)));
+			assertEquals(CanonicalHands.canonicalBoard(board), CanonicalHands.canonicalBoard(CanonicalHands.board(key)));
+			for (int[] p : PERMUTATIONS) 
+				assertEquals(CanonicalHands.canonicalKey(permute(hole, p), permute(board, p)), key);
+		}
+	}
+
+	@Test
+	public void riverEquityMatchesBruteForce() {
+		SplittableRandom random = new SplittableRandom(5); 
+		RiverEquity sweep = new RiverEquity(); 
+		float[] equity = new float[Cards.HOLE_PAIRS]; 
+
+		for (int trial = 0; trial < 3; trial++) {
+			long board = deal(random, 5); 
+			sweep.compute(board, equity, 0); 
+
+			int[] live = Cards.liveCards(board); 
+			for (int a = 0; a < live.length; a++) {
+				for (int b = a + 1; b < live.length; b++) {
+					long hole = 1L << live[a] | 1L << live[b]; 
+					double won = 0; 
+					int opponents = 0; 
+					for (int c = 0; c < live.length; c++) {
+						for (int d = c + 1; d < live.length; d++) {
+							long villain = 1L << live[c] | 1L << live[d]; 
+							if ((villain & hole) != 0) 
+								continue; 
+							int cmp = Ruleset.HOLDEM.compare(hole | board, villain | board); 
+							won += cmp > 0 ? 1 : cmp == 0 ? 0.5 : 0; 
+							opponents++; 
+						}
+					}
+					assertEquals(equity[Cards.pairIndex(live[a], live[b])], won / opponents, 1e-6);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void bucketTableRoundTrip() throws IOException {
+		long[] boards = CanonicalHands.boards(Street.FLOP); 
+
+		//every canonical hand on the first few flops, with an arbitrary bucket each
+		long[] keys = new long[50 * Cards.HOLE_PAIRS]; 
+		int n = 0; 
+		for (int b = 0; b < 50; b++) {
+			int[] live = Cards.liveCards(boards[b]); 
+			for (int i = 0; i < live.length; i++) 
+				for (int j = i + 1; j < live.length; j++) 
+					if (CanonicalHands.isCanonical(1L << live[i] | 1L << live[j], boards[b])) 
+						keys[n++] = CanonicalHands.key(1L << live[i] | 1L << live[j], boards[b]); 
+		}
+		keys = Arrays.copyOf(keys, n); 
+		short[] buckets = new short[n]; 
+		for (int i = 0; i < n; i++) 
+			buckets[i] = (short) (Long.hashCode(keys[i] * 0x9E3779B97F4A7C15L) & 7); 
+
+		Path file = Files.createTempFile("flop", ".buckets"); 
+		try {
+			BucketTable.write(file, Street.FLOP, 8, keys, buckets); 
+			BucketTable table = BucketTable.open(file); 
+			assertEquals(table.street, Street.FLOP);
+			assertEquals(table.bucketCount, 8);
+			assertEquals(table.size(), n);
+
+			int[] swapped = {2, 3, 0, 1}; 
+			for (int i = 0; i < n; i++) {
+				long hole = CanonicalHands.hole(keys[i]), board = CanonicalHands.board(keys[i]); 
+				assertEquals(table.bucket(hole, board), buckets[i]);
+				assertEquals(table.bucket(permute(hole, swapped), permute(board, swapped)), buckets[i]);
+			}
+		} finally {
+			Files.delete(file); 
+		}
+	}
+
+	private static long deal(SplittableRandom random, int cards) {
+		long mask = 0L; 
+		while (Long.bitCount(mask) < cards) 
+			mask |= 1L << random.nextInt(Cards.DECK_SIZE); 
+		return mask; 
+	}
+
+	private static long permute(long mask, int[] suits) {
+		long permuted = 0L; 
+		for (int s = 0; s < 4; s++) 
+			permuted |= (long) Cards.suitRanks(mask, s) << 13 * suits[s]; 
+		return permuted; 
+	}
+
+	private static int[][] permutations() {
+		int[][] all = new int[24][]; 
+		int n = 0; 
+		for (int a = 0; a < 4; a++) 
+			for (int b = 0; b < 4; b++) 
+				for (int c = 0; c < 4; c++) 
+					if (a != b && a != c && b != c) 
+						all[n++] = new int[] {a, b, c, 6 - a - b - c}; 
+		return all; 
+	}
+}
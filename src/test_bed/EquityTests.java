@@ -0,0 +1,74 @@
+package test_bed;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import equity.EquityCalculator;
+import equity.Range;
+import equity.RangeShowdown;
+import game_components.Cards;
+import game_components.HandEvaluator;
+
+public class EquityTests {
+
+	@Test
+	public void rangeParsing() {
+		assertEquals(Range.parse("AA").size(), 6);
+		assertEquals(Range.parse("AKs").size(), 4);
+		assertEquals(Range.parse("AKo").size(), 12);
+		assertEquals(Range.parse("AK").size(), 16);
+		assertEquals(Range.parse("TT+").size(), 30);
+		assertEquals(Range.parse("ATs+").size(), 16);
+		assertEquals(Range.parse("AsKd, QQ:0.5").weight(0), 0.5f, 0f);
+		assertEquals(Range.all().size(), Cards.HOLE_PAIRS);
+	}
+
+	@Test
+	public void splitsAndRiverEquity() {
+		long board = Cards.parse("AhKhQhJhTh"); 
+		double[] royal = EquityCalculator.equity(new long[] {Cards.parse("2c3d"), Cards.parse("4s5c")}, board); 
+		assertArrayEquals(royal, new double[] {0.5, 0.5}, 0);
+
+		double[] setOverPair = EquityCalculator.equity(new long[] {Cards.parse("7s7d"), Cards.parse("AsAd")}, Cards.parse("7c2h9s")); 
+		assertTrue(setOverPair[0] > 0.85);
+		assertEquals(setOverPair[0] + setOverPair[1], 1.0, 1e-9);
+	}
+
+	@Test
+	public void rangeEquityMatchesHandEquity() {
+		long board = Cards.parse("Kd7c2h"); 
+		double hands = EquityCalculator.equity(new long[] {Cards.parse("AsAd"), Cards.parse("KhKc")}, board)[0]; 
+		double ranges = EquityCalculator.rangeEquity(Range.parse("AsAd"), Range.parse("KhKc"), board, 0, 0); 
+		assertEquals(hands, ranges, 1e-9);
+	}
+
+	@Test
+	public void sweepMatchesPairwiseComparison() {
+		long board = Cards.parse("Kd7c2h9s"); 
+		Range hero = Range.parse("QQ+,AK,T9s,KQ:0.5"), villain = Range.parse("22+,AJs+,KJo,87s:0.25"); 
+		RangeShowdown showdown = RangeShowdown.of(hero, villain, board); 
+
+		for (int i = 0; i < hero.size(); i++) {
+			if ((hero.combo(i) & board) != 0) 
+				continue; 
+
+			double won = 0, faced = 0; 
+			for (int river = 0; river < Cards.DECK_SIZE; river++) {
+				long full = board | 1L << river; 
+				if ((board & 1L << river) != 0 || (hero.combo(i) & full) != 0) 
+					continue; 
+				int heroStrength = HandEvaluator.evaluateStrength(full | hero.combo(i)); 
+				for (int j = 0; j < villain.size(); j++) {
+					if ((villain.combo(j) & (full | hero.combo(i))) != 0) 
+						continue; 
+					int delta = heroStrength - HandEvaluator.evaluateStrength(full | villain.combo(j)); 
+					won += villain.weight(j) * (delta > 0 ? 1 : delta == 0 ? 0.5 : 0); 
+					faced += villain.weight(j); 
+				}
+			}
+			assertEquals(won / faced, showdown.heroEquity(i), 1e-9);
+		}
+		assertEquals(showdown.heroEquity() + showdown.villainEquity(), 1.0, 1e-9);
+	}
+}
@@ -0,0 +1,168 @@
+package test_bed;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import game_components.Card;
+import game_components.Cards;
+import game_components.EvaluatorBootstrap;
+import game_components.HandEvaluator;
+import game_components.HandStrength;
+import game_components.Ruleset;
+import game_components.UnmadeHand;
+
+import static game_components.Card.Suit.*;
+import static game_components.Card.*; 
+import static game_components.HandEvaluator.HandType.*;
+
+public class HandStrengthTests {
+
+	@Test
+	public void agreesWithEvaluate() {
+
+		UnmadeHand pre = new UnmadeHand(); 
+		pre.addCard(new Card(DIAMONDS, JACK))
+		.addCard(new Card(HEARTS, JACK))
+		.addCard(new Card(SPADES, NINE))
+		.addCard(new Card(CLUBS, SEVEN))
+		.addCard(new Card(DIAMONDS, KING))
+		.addCard(new Card(HEARTS, TWO))
+		.addCard(new Card(CLUBS, NINE)); 
+
+		int strength = HandEvaluator.evaluateStrength(pre); 
+
+		assertEquals(HandStrength.handType(strength), TWO_PAIR); 
+		assertArrayEquals(HandStrength.toMadeHand(strength).highCardRankings, HandEvaluator.evaluate(pre).highCardRankings);
+	}
+
+	@Test
+	public void wheelLosesToSixHighStraight() {
+
+		UnmadeHand wheel = new UnmadeHand(); 
+		wheel.addCard(new Card(DIAMONDS, ACE))
+			.addCard(new Card(HEARTS, FIVE))
+			.addCard(new Card(SPADES, NINE))
+			.addCard(new Card(HEARTS, THREE))
+			.addCard(new Card(DIAMONDS, KING))
+			.addCard(new Card(HEARTS, TWO))
+			.addCard(new Card(CLUBS, FOUR));
+
+		UnmadeHand sixHigh = new UnmadeHand(); 
+		sixHigh.addCard(new Card(DIAMONDS, SIX))
+			.addCard(new Card(HEARTS, FIVE))
+			.addCard(new Card(SPADES, NINE))
+			.addCard(new Card(HEARTS, THREE))
+			.addCard(new Card(DIAMONDS, KING))
+			.addCard(new Card(HEARTS, TWO))
+			.addCard(new Card(CLUBS, FOUR));
+
+		int wheelStrength = HandEvaluator.evaluateStrength(wheel); 
+
+		assertEquals(HandStrength.handType(wheelStrength), STRAIGHT); 
+		assertEquals(HandStrength.rank(wheelStrength, 0), FIVE); 
+		assertTrue(wheelStrength < HandEvaluator.evaluateStrength(sixHigh)); 
+	}
+
+	@Test
+	public void sevenCardCategoryCounts() {
+
+		long[] counts = new long[9]; 
+		for (int a = 0; a < 52; a++)
+			for (int b = a + 1; b < 52; b++)
+				for (int c = b + 1; c < 52; c++)
+					for (int d = c + 1; d < 52; d++)
+						for (int e = d + 1; e < 52; e++)
+							for (int f = e + 1; f < 52; f++)
+								for (int g = f + 1; g < 52; g++) 
+									counts[HandStrength.handType(HandEvaluator.evaluateStrength(
+											1L << a | 1L << b | 1L << c | 1L << d | 1L << e | 1L << f | 1L << g)).strength()]++; 
+
+		assertArrayEquals(new long[] {23294460, 58627800, 31433400, 6461620, 6180020, 4047644, 3473184, 224848, 41584}, counts);
+	}
+
+	@Test
+	public void shortDeckRules() {
+
+		Ruleset rules = Ruleset.SHORT_DECK; 
+
+		assertEquals(Long.bitCount(rules.deck), 36);
+
+		int wheel = rules.evaluate(Cards.parse("Ah6d7c8s9h")); 
+		assertEquals(rules.handType(wheel), STRAIGHT);
+		assertTrue(wheel < rules.evaluate(Cards.parse("6d7c8s9hTd")));
+
+		assertTrue(rules.evaluate(Cards.parse("AhKhQh9h6h")) > rules.evaluate(Cards.parse("AhAdAsKcKh")));
+		assertTrue(Ruleset.HOLDEM.evaluate(Cards.parse("AhKhQh9h6h")) < Ruleset.HOLDEM.evaluate(Cards.parse("AhAdAsKcKh")));
+		assertTrue(rules.compare(FLUSH, FULL_HOUSE) > 0);
+	}
+
+	@Test
+	public void lazyComparison() {
+
+		UnmadeHand flush = new UnmadeHand(); 
+		flush.addCard(new Card(HEARTS, TEN))
+			.addCard(new Card(HEARTS, JACK))
+			.addCard(new Card(SPADES, NINE))
+			.addCard(new Card(HEARTS, THREE))
+			.addCard(new Card(DIAMONDS, KING))
+			.addCard(new Card(HEARTS, TWO))
+			.addCard(new Card(HEARTS, ACE));
+
+		UnmadeHand kingHigh = new UnmadeHand(); 
+		kingHigh.addCard(new Card(CLUBS, TEN))
+			.addCard(new Card(SPADES, JACK))
+			.addCard(new Card(SPADES, NINE))
+			.addCard(new Card(HEARTS, THREE))
+			.addCard(new Card(DIAMONDS, KING))
+			.addCard(new Card(HEARTS, TWO))
+			.addCard(new Card(CLUBS, SEVEN));
+
+		UnmadeHand queenHigh = new UnmadeHand(); 
+		queenHigh.addCard(new Card(CLUBS, TEN))
+			.addCard(new Card(SPADES, JACK))
+			.addCard(new Card(SPADES, NINE))
+			.addCard(new Card(HEARTS, THREE))
+			.addCard(new Card(DIAMONDS, QUEEN))
+			.addCard(new Card(HEARTS, TWO))
+			.addCard(new Card(CLUBS, SEVEN));
+
+		assertEquals(HandEvaluator.handType(flush), FLUSH); 
+		assertEquals(HandEvaluator.handType(kingHigh), HIGH_CARD); 
+		assertTrue(HandEvaluator.compare(flush, kingHigh) > 0);
+		assertTrue(HandEvaluator.compare(queenHigh, kingHigh) < 0);
+		assertEquals(HandEvaluator.compare(kingHigh, kingHigh), 0);
+
+		assertArrayEquals(HandEvaluator.winners(kingHigh, flush, queenHigh), new int[] {1});
+		assertArrayEquals(HandEvaluator.winners(kingHigh, queenHigh, kingHigh), new int[] {0, 2});
+	}
+
+	@Test
+	public void bootstrapWarmsEveryHandType() {
+		//throws if any sample hand is misclassified
+		EvaluatorBootstrap.initialize(); 
+		assertTrue(EvaluatorBootstrap.warmup() > 0);
+	}
+
+	@Test
+	public void legacyEvaluateLeavesHandIntact() {
+		long cards = Cards.parse("KhKdKsQcQs2d7h"); 
+		UnmadeHand fullHouse = new UnmadeHand(); 
+		for (long left = cards; left != 0; left &= left - 1) 
+			fullHouse.addCard(Card.fromIndex(Long.numberOfTrailingZeros(left))); 
+
+		assertEquals(HandEvaluator.evaluate(fullHouse).handType, FULL_HOUSE);
+		assertEquals(fullHouse.mask(), cards);
+		assertEquals(HandEvaluator.handType(fullHouse), FULL_HOUSE);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void placeholderCardHasNoIndex() {
+		BLUE_EYES_WHITE_DRAGON.index(); 
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void showdownsAreCappedAt32Hands() {
+		Ruleset.HOLDEM.winners(new long[33], 33); 
+	}
+}
@@ -0,0 +1,104 @@
+package test_bed;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import equity.EquityCalculator;
+import game_components.Cards;
+import icm.AllInSimulator;
+import icm.AllInSpot;
+import icm.IcmCalculator;
+
+public class IcmTests {
+
+	@Test
+	public void threePlayerHarville() {
+		IcmCalculator icm = new IcmCalculator(50, 30, 20); 
+		double[] equity = icm.exact(new double[] {5000, 3000, 2000}); 
+
+		//P(first) * 50 + P(second) * 30 + P(third) * 20, P(A second) = .3 * 5/7 + .2 * 5/8
+		double a = 0.5 * 50 + (0.3 * 5 / 7 + 0.2 * 5 / 8) * 30 + (1 - 0.5 - (0.3 * 5 / 7 + 0.2 * 5 / 8)) * 20; 
+		assertEquals(equity[0], a, 1e-9);
+		assertEquals(equity[0] + equity[1] + equity[2], 100, 1e-9);
+	}
+
+	@Test
+	public void bustedPlayersGetNothing() {
+		IcmCalculator icm = new IcmCalculator(70, 30); 
+		double[] equity = icm.exact(new double[] {4000, 0, 4000}); 
+		assertArrayEquals(equity, new double[] {50, 0, 50}, 1e-9);
+	}
+
+	@Test
+	public void samplingApproachesExact() {
+		IcmCalculator icm = new IcmCalculator(40, 25, 15, 10, 6, 4); 
+		double[] stacks = {1000, 2500, 4000, 800, 3100, 1200, 700, 1900}; 
+		assertArrayEquals(icm.monteCarlo(stacks, 200_000, 7), icm.exact(stacks), 0.15);
+	}
+
+	@Test
+	public void sharedSamplesTrackChipShares() {
+		//winner take all: equity is exactly the chip share, in every stack vector
+		IcmCalculator icm = new IcmCalculator(100); 
+		double[][] stacks = new double[2][12]; 
+		for (int p = 0; p < 12; p++) {
+			stacks[0][p] = 500 + 100 * p; 
+			stacks[1][p] = 500 + 100 * p; 
+		}
+		stacks[1][3] = 0; 
+		stacks[1][5] += 800; 
+
+		double[] equity = icm.withSamples(200_000).equities(stacks, 5); 
+		assertEquals(equity[0], 100 * 1000 / 12600.0, 0.3);
+		assertEquals(equity[1], 100 * 1800 / 12600.0, 0.3);
+	}
+
+	@Test
+	public void callerEquitySettlesPot() {
+		//winner take all again, so prize equity is 100 * stack / 6000 and the pot settlement shows through
+		AllInSimulator simulator = new AllInSimulator(new IcmCalculator(100), 1); 
+		long shoverHole = Cards.parse("AhKd"), callerHole = Cards.parse("7s7c"); 
+		double[] odds = EquityCalculator.outcomes(shoverHole, callerHole, 0L); 
+
+		//caller covers: 1000 goes in from each, on top of the 150 posted
+		AllInSpot covered = new AllInSpot(new double[] {1000, 3000, 2000}, new double[] {0, 50, 100}, 0, 2, shoverHole, callerHole); 
+		double[] equity = simulator.callerEquity(covered); 
+		assertEquals(equity[0], 1900 / 60.0, 1e-9);
+		assertEquals(equity[1], (odds[0] * 1000 + odds[1] * 2025 + odds[2] * 3050) / 60, 1e-9);
+
+		//caller is short: only their 600 is at risk
+		AllInSpot shortCall = new AllInSpot(new double[] {3000, 600, 2400}, new double[] {0, 50, 100}, 0, 1, shoverHole, callerHole); 
+		equity = simulator.callerEquity(shortCall); 
+		assertEquals(equity[0], 550 / 60.0, 1e-9);
+		assertEquals(equity[1], (odds[1] * 650 + odds[2] * 1300) / 60, 1e-9);
+
+		double[][] batch = simulator.simulate(new AllInSpot[] {covered, shortCall}); 
+		assertArrayEquals(batch[0], simulator.callerEquity(covered), 0);
+		assertArrayEquals(batch[1], equity, 0);
+		simulator.shutdown(); 
+	}
+
+	@Test
+	public void bustedCallerKeepsTheirPlace() {
+		AllInSimulator simulator = new AllInSimulator(new IcmCalculator(70, 30), 1); 
+		long shoverHole = Cards.parse("AhAd"), callerHole = Cards.parse("7s2c"); 
+		double[] odds = EquityCalculator.outcomes(shoverHole, callerHole, 0L); 
+
+		//heads up with equal stacks: winning takes first, a split leaves it even, losing still pays second
+		AllInSpot spot = new AllInSpot(new double[] {1000, 1000}, new double[] {50, 100}, 0, 1, shoverHole, callerHole); 
+		double[] equity = simulator.callerEquity(spot); 
+		assertEquals(equity[0], 0.45 * 70 + 0.55 * 30, 1e-9);
+		assertEquals(equity[1], odds[0] * 30 + odds[1] * 50 + odds[2] * 70, 1e-9);
+		assertTrue(equity[1] > 30);
+		simulator.shutdown(); 
+
+		//three left, three paid: busting is third
+		simulator = new AllInSimulator(new IcmCalculator(50, 30, 20), 1); 
+		spot = new AllInSpot(new double[] {1000, 1000, 1000}, new double[] {0, 50, 100}, 0, 2, shoverHole, callerHole); 
+		double[] winner = new IcmCalculator(50, 30, 20).exact(new double[] {0, 950, 2050}); 
+		double[] split = new IcmCalculator(50, 30, 20).exact(new double[] {1025, 950, 1025}); 
+		assertEquals(simulator.callerEquity(spot)[1], odds[0] * 20 + odds[1] * split[2] + odds[2] * winner[2], 1e-9);
+		simulator.shutdown(); 
+	}
+}
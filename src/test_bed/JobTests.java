@@ -0,0 +1,68 @@
+package test_bed;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+import game_components.Cards;
+import jobs.EquityJob;
+import jobs.JobRunner;
+import jobs.SimulationJob;
+
+public class JobTests {
+
+	private final EquityJob acesVsKings = new EquityJob(0L, Cards.parse("AhAs"), Cards.parse("KhKd")); 
+
+	@Test
+	public void sameCountsOnAnyThreadCount() throws IOException {
+		long[] one = new JobRunner(acesVsKings, 11, 200_000, 1000).run(1); 
+		assertArrayEquals(one, new JobRunner(acesVsKings, 11, 200_000, 1000).run(3)); 
+		assertArrayEquals(one, new JobRunner(acesVsKings, 11, 200_000, 1000).run(8)); 
+
+		//AA vs KK with no shared suit, about 82/18
+		assertEquals(EquityJob.equities(one, 200_000)[0], 0.82, 0.01);
+	}
+
+	@Test
+	public void resumesAfterCrash() throws IOException {
+		Path checkpoint = Files.createTempFile("job", ".ckpt"); 
+		Files.delete(checkpoint); 
+
+		SimulationJob crashing = new SimulationJob() {
+			private int chunks; 
+			public String name() { return acesVsKings.name(); }
+			public int counters() { return acesVsKings.counters(); }
+			public synchronized void run(SplittableRandom random, int trials, long[] counts) {
+				if (++chunks == 50) 
+					throw new IllegalStateException("crash"); 
+				acesVsKings.run(random, trials, counts); 
+			}
+		}; 
+		try {
+			new JobRunner(crashing, 11, 200_000, 1000).checkpointTo(checkpoint, 0).run(2); 
+			fail("Job should have crashed"); 
+		} catch (IllegalStateException expected) {}
+		assertTrue(Files.exists(checkpoint));
+
+		long[] resumed = new JobRunner(acesVsKings, 11, 200_000, 1000).checkpointTo(checkpoint, 0).run(2); 
+		assertArrayEquals(new JobRunner(acesVsKings, 11, 200_000, 1000).run(1), resumed); 
+		Files.delete(checkpoint); 
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsOtherRunsCheckpoint() throws IOException {
+		Path checkpoint = Files.createTempFile("job", ".ckpt"); 
+		Files.delete(checkpoint); 
+		try {
+			new JobRunner(acesVsKings, 11, 10_000, 1000).checkpointTo(checkpoint, 0).run(1); 
+			new JobRunner(acesVsKings, 12, 10_000, 1000).checkpointTo(checkpoint, 0).run(1); 
+		} finally {
+			Files.deleteIfExists(checkpoint); 
+		}
+	}
+}
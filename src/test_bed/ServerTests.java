@@ -0,0 +1,168 @@
+package test_bed;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import equity.EquityCalculator;
+import equity.Range;
+import game_components.Cards;
+import game_components.HandEvaluator;
+import server.EquityServer;
+import server.RequestBatcher;
+
+public class ServerTests {
+
+	private EquityServer server; 
+
+	@Before
+	public void start() throws IOException {
+		server = new EquityServer(0, 2, 64); 
+		server.start(); 
+	}
+
+	@After
+	public void stop() {
+		server.stop(); 
+	}
+
+	@Test
+	public void evaluate() throws IOException {
+		int strength = HandEvaluator.evaluateStrength(Cards.parse("AsKdQhJcTs9d8h")); 
+		assertEquals(get(server, "/evaluate?cards=AsKdQhJcTs9d8h"), 
+				"200 {\"strength\":" + strength + ",\"handType\":\"STRAIGHT\",\"ranks\":[14,13,12,11,10]}");
+	}
+
+	@Test
+	public void equity() throws IOException {
+		assertEquals(get(server, "/equity?hands=2c3d,4s5c&board=AhKhQhJhTh"), "200 {\"equity\":[0.5,0.5]}");
+	}
+
+	@Test
+	public void rangeKeepsPlusSigns() throws IOException {
+		String board = "2c3d4h5s"; 
+		double expected = EquityCalculator.rangeEquity(Range.parse("QQ+"), Range.parse("JJ"), Cards.parse(board), 20_000, board.hashCode()); 
+
+		assertEquals(get(server, "/range?hero=QQ+&villain=JJ&board=" + board), "200 {\"equity\":" + expected + "}");
+		assertEquals(get(server, "/range?hero=QQ%2B&villain=JJ&board=" + board), "200 {\"equity\":" + expected + "}");
+	}
+
+	@Test
+	public void badRequests() throws IOException {
+		assertTrue(get(server, "/evaluate?cards=AsKd").startsWith("400 "));
+		assertTrue(get(server, "/equity?board=2c7d9h").startsWith("400 "));
+	}
+
+	@Test
+	public void overloadIsTurnedAway() throws IOException {
+		EquityServer full = new EquityServer(0, 1, 0); 
+		full.start(); 
+		try {
+			assertEquals(get(full, "/evaluate?cards=AsKdQhJcTs"), "503 {\"error\":\"overloaded\"}");
+		} finally {
+			full.stop(); 
+		}
+	}
+
+	@Test
+	public void queuedQueriesCoalesceAndFailAlone() throws Exception {
+		CountDownLatch blocked = new CountDownLatch(1), release = new CountDownLatch(1); 
+		List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>()); 
+
+		//squares its queries, rejects negative ones, and holds the batch containing 0 until released
+		RequestBatcher<Integer, Integer> batcher = new RequestBatcher<>("test", 1, 64, queries -> {
+			batchSizes.add(queries.size()); 
+			if (queries.contains(0)) {
+				blocked.countDown(); 
+				try {
+					release.await(); 
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e); 
+				}
+			}
+			List<Integer> squares = new ArrayList<>(); 
+			for (int q : queries) {
+				if (q < 0) 
+					throw new IllegalArgumentException("negative"); 
+				squares.add(q * q); 
+			}
+			return squares; 
+		}); 
+
+		try {
+			CompletableFuture<Integer> first = batcher.submit(0); 
+			blocked.await(); 
+			List<CompletableFuture<Integer>> queued = new ArrayList<>(); 
+			for (int q = -2; q <= 4; q++) 
+				queued.add(batcher.submit(q)); 
+			release.countDown(); 
+
+			assertEquals((int) first.get(), 0);
+			for (int i = 0; i < queued.size(); i++) {
+				int q = i - 2; 
+				if (q >= 0) {
+					assertEquals((int) queued.get(i).get(), q * q);
+				} else {
+					try {
+						queued.get(i).get(); 
+						fail("Negative query should fail"); 
+					} catch (ExecutionException e) {
+						assertTrue(e.getCause() instanceof IllegalArgumentException);
+					}
+				}
+			}
+			//everything queued behind the held batch went in one batch, then was retried alone when it failed
+			assertEquals(batchSizes.get(1), Integer.valueOf(7));
+			assertEquals(batchSizes.size(), 2 + 7);
+		} finally {
+			batcher.close(); 
+		}
+	}
+
+	@Test
+	public void badQueryDoesNotFailOthers() throws Exception {
+		ExecutorService clients = Executors.newFixedThreadPool(16); 
+		try {
+			List<Future<String>> good = new ArrayList<>(), bad = new ArrayList<>(); 
+			for (int i = 0; i < 40; i++) {
+				good.add(clients.submit(() -> get(server, "/equity?hands=2c3d,4s5c&board=AhKhQhJhTh"))); 
+				bad.add(clients.submit(() -> get(server, "/equity?hands=AsAd,AsKd&board=2c7d9h"))); 
+			}
+			for (Future<String> response : good) 
+				assertEquals(response.get(), "200 {\"equity\":[0.5,0.5]}");
+			for (Future<String> response : bad) 
+				assertTrue(response.get().startsWith("400 "));
+		} finally {
+			clients.shutdown(); 
+		}
+	}
+
+	/**
+	 * Returns the status code and body of a GET, separated by a space. 
+	 */
+	private static String get(EquityServer server, String path) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.port() + path).openConnection(); 
+		int status = connection.getResponseCode(); 
+		InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream(); 
+		try (Scanner in = new Scanner(body, "UTF-8")) {
+			return status + " " + in.useDelimiter("\\A").next(); 
+		}
+	}
+}
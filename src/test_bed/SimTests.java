@@ -0,0 +1,123 @@
+package test_bed;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import game_components.Cards;
+import sim.Bot;
+import sim.CallingStation;
+import sim.CategoryBot;
+import sim.SelfPlay;
+import sim.Situation;
+import sim.Table;
+
+public class SimTests {
+
+	/**
+	 * Plays the given targets in order, then checks or calls. Records whether each decision could raise. 
+	 */
+	private static final class Scripted implements Bot {
+
+		private final int[] targets; 
+		private int next, decisions; 
+		final boolean[] couldRaise = new boolean[64]; 
+
+		Scripted(int... targets) {
+			this.targets = targets; 
+		}
+
+		@Override
+		public int act(Situation s) {
+			couldRaise[decisions++] = s.canRaise(); 
+			return next < targets.length ? targets[next++] : s.currentBet(); 
+		}
+	}
+
+	@Test
+	public void threeWayAllInSidePots() {
+		//seat 0 has the button, so seats 1 and 2 post the blinds and seat 0 shoves first
+		Table table = new Table(new Bot[] {new Scripted(1000), new Scripted(1000), new Scripted(1000)}, 
+				1, 2, new int[] {100, 300, 500}, new SplittableRandom(0)); 
+		table.playHand(new long[] {Cards.parse("AsAd"), Cards.parse("KsKd"), Cards.parse("QsQd")}, Cards.parse("2c5h8d9cJh")); 
+
+		//main pot of 300 to seat 0, side pot of 400 to seat 1, seat 2's uncalled 200 back to it
+		assertEquals(table.lastResult(0), 200);
+		assertEquals(table.lastResult(1), 100);
+		assertEquals(table.lastResult(2), -300);
+	}
+
+	@Test
+	public void shortStackWinsOnlyMainPot() {
+		Table table = new Table(new Bot[] {new Scripted(1000), new Scripted(1000), new Scripted(1000)}, 
+				1, 2, new int[] {100, 300, 500}, new SplittableRandom(0)); 
+		table.playHand(new long[] {Cards.parse("QsQd"), Cards.parse("KsKd"), Cards.parse("AsAd")}, Cards.parse("2c5h8d9cJh")); 
+
+		assertEquals(table.lastResult(0), -100);
+		assertEquals(table.lastResult(1), -300);
+		assertEquals(table.lastResult(2), 400);
+	}
+
+	@Test
+	public void oddChipGoesFirstAfterButton() {
+		//limped pot, 3 more each on the flop, seat 0 folds to 4 more on the turn: 23 chips split by a royal board
+		Table table = new Table(new Bot[] {new Scripted(2, 3, Bot.FOLD), new Scripted(2, 3, 4), new Scripted(2, 3, 4)}, 
+				1, 2, new int[] {100, 100, 100}, new SplittableRandom(0)); 
+		table.playHand(new long[] {Cards.parse("2c3c"), Cards.parse("4d5d"), Cards.parse("6s7s")}, Cards.parse("AhKhQhJhTh")); 
+
+		assertEquals(table.lastResult(0), -5);
+		assertEquals(table.lastResult(1), 3);
+		assertEquals(table.lastResult(2), 2);
+	}
+
+	@Test
+	public void shortAllInDoesNotReopenBetting() {
+		//seat 3 opens to 100, seat 0 calls, the small blind folds, and the big blind's 150 all in is short of a full raise
+		Scripted opener = new Scripted(100, 1000), caller = new Scripted(100); 
+		Table table = new Table(new Bot[] {caller, new Scripted(Bot.FOLD), new Scripted(1000), opener}, 
+				1, 2, new int[] {1000, 1000, 150, 1000}, new SplittableRandom(0)); 
+		table.playHand(new long[] {Cards.parse("7h2d"), Cards.parse("8h3d"), Cards.parse("AsAd"), Cards.parse("9h4d")}, 
+				Cards.parse("2c5h8dTcJs")); 
+
+		assertTrue(opener.couldRaise[0]);
+		assertFalse(opener.couldRaise[1]);
+		assertFalse(caller.couldRaise[1]);
+
+		//the opener's attempted re-raise was held to a call, so nothing went in after the all in
+		assertEquals(table.lastResult(3), -150);
+		assertEquals(table.lastResult(0), -150);
+		assertEquals(table.lastResult(1), -1);
+		assertEquals(table.lastResult(2), 301);
+	}
+
+	@Test
+	public void chipsAreConserved() {
+		//uneven stacks and a player always all in, so most hands have side pots
+		Bot shover = s -> Integer.MAX_VALUE; 
+		Bot[] bots = {new CategoryBot(), new CallingStation(), new CategoryBot(), new CallingStation(), shover}; 
+		Table table = new Table(bots, 1, 2, new int[] {40, 200, 75, 500, 13}, new SplittableRandom(9)); 
+		for (int hand = 0; hand < 20_000; hand++) {
+			table.playHand(); 
+			int total = 0; 
+			for (int p = 0; p < bots.length; p++) 
+				total += table.lastResult(p); 
+			assertEquals(total, 0);
+		}
+	}
+
+	@Test
+	public void selfPlayIsReproducible() {
+		List<Supplier<? extends Bot>> seats = Arrays.asList(CategoryBot::new, CallingStation::new, CategoryBot::new); 
+		SelfPlay play = new SelfPlay(seats, 1, 2, new int[] {100, 250, 60}); 
+		SelfPlay.Result result = play.run(30_000, 4, 17); 
+
+		assertEquals(result.hands(), 30_000);
+		assertEquals(result.toString(), play.run(30_000, 4, 17).toString());
+		assertEquals(result.bbPer100(0) + result.bbPer100(1) + result.bbPer100(2), 0, 1e-9);
+	}
+}
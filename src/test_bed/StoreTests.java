@@ -0,0 +1,175 @@
+package test_bed;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import abstraction.CanonicalHands;
+import equity.EquityCalculator;
+import equity.Range;
+import game_components.Cards;
+import store.SharedEquityCache;
+import store.SharedResultStore;
+
+public class StoreTests {
+
+	private Path file; 
+
+	@Before
+	public void createFile() throws IOException {
+		file = Files.createTempFile("results", ".store"); 
+		Files.delete(file); 
+	}
+
+	@After
+	public void deleteFile() throws IOException {
+		Files.deleteIfExists(file); 
+	}
+
+	@Test
+	public void concurrentPutsIntoFullWindow() throws Exception {
+		//8 slots is one probe window, so nearly every put evicts
+		try (SharedResultStore store = SharedResultStore.open(file, 8)) {
+			AtomicInteger wrong = new AtomicInteger(), hits = new AtomicInteger(); 
+			Thread[] threads = new Thread[4]; 
+			for (int t = 0; t < threads.length; t++) {
+				long seed = t; 
+				threads[t] = new Thread(() -> {
+					SplittableRandom random = new SplittableRandom(seed); 
+					for (int i = 0; i < 200_000; i++) {
+						long key = 1 + random.nextInt(64); 
+						store.put(key, result(key)); 
+						long probe = 1 + random.nextInt(64); 
+						double seen = store.get(probe); 
+						if (!Double.isNaN(seen)) {
+							hits.incrementAndGet(); 
+							if (seen != result(probe)) 
+								wrong.incrementAndGet(); 
+						}
+					}
+				}); 
+				threads[t].start(); 
+			}
+			for (Thread t : threads) 
+				t.join(); 
+
+			assertEquals(wrong.get(), 0);
+			assertTrue(hits.get() > 0);
+			int stored = 0; 
+			for (long key = 1; key <= 64; key++) {
+				double seen = store.get(key); 
+				if (!Double.isNaN(seen)) {
+					assertEquals(seen, result(key), 0);
+					stored++; 
+				}
+			}
+			assertTrue(stored > 0 && stored <= 8);
+		}
+	}
+
+	@Test
+	public void repairsSlotsLeftByDeadWriters() throws IOException {
+		SharedResultStore.open(file, 8).close(); 
+
+		//every key claimed but never published, as if each writer died right after its key CAS
+		plant(0); 
+		try (SharedResultStore store = SharedResultStore.open(file, 8)) {
+			assertTrue(Double.isNaN(store.get(3)));
+			assertTrue(store.put(3, result(3)));
+			assertEquals(store.get(3), result(3), 0);
+			assertTrue(store.put(100, result(100)));
+			assertEquals(store.get(100), result(100), 0);
+		}
+
+		//every slot mid-eviction: a mark from a long dead writer is taken over, a fresh one is left alone
+		long nan = 0x7FF8_0000_0000_0000L, present = 0x7FF8_0000_0000_0001L; 
+		plant((nan | 1_000) ^ present); 
+		try (SharedResultStore store = SharedResultStore.open(file, 8)) {
+			assertTrue(Double.isNaN(store.get(3)));
+			assertTrue(store.put(100, result(100)));
+			assertEquals(store.get(100), result(100), 0);
+		}
+		plant((nan | System.currentTimeMillis()) ^ present); 
+		try (SharedResultStore store = SharedResultStore.open(file, 8)) {
+			assertFalse(store.put(100, result(100)));
+			assertTrue(Double.isNaN(store.get(100)));
+		}
+	}
+
+	@Test
+	public void reopenKeepsSizeAndResults() throws IOException {
+		try (SharedResultStore store = SharedResultStore.open(file, 1000)) {
+			assertEquals(store.slots(), 1024);
+			for (long key = 1; key <= 100; key++) 
+				assertTrue(store.put(key, result(key)));
+			store.force(); 
+		}
+		try (SharedResultStore store = SharedResultStore.open(file, 64)) {
+			assertEquals(store.slots(), 1024);
+			for (long key = 1; key <= 100; key++) 
+				assertEquals(store.get(key), result(key), 0);
+			assertTrue(Double.isNaN(store.get(101)));
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsTruncatedStore() throws IOException {
+		SharedResultStore.open(file, 1024).close(); 
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(64 + 100 * 16); 
+		}
+		SharedResultStore.open(file, 1024).close(); 
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsBadSlotCount() throws IOException {
+		SharedResultStore.open(file, 1024).close(); 
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			ByteBuffer slots = ByteBuffer.allocate(4).order(ByteOrder.nativeOrder()).putInt(0, 1000); 
+			channel.write(slots, 8); 
+		}
+		SharedResultStore.open(file, 1024).close(); 
+	}
+
+	@Test
+	public void equityCacheSharesIsomorphs() throws IOException {
+		try (SharedResultStore store = SharedResultStore.open(file, 1 << 12)) {
+			SharedEquityCache cache = new SharedEquityCache(store); 
+			long hole = Cards.parse("AhKh"), board = Cards.parse("Qh7h2c"); 
+
+			double equity = cache.equityVsRandom(hole, board); 
+			assertEquals(equity, EquityCalculator.rangeEquity(Range.of(hole), Range.all(), board, 0, 0L), 1e-12);
+			assertEquals(store.get(CanonicalHands.canonicalKey(hole, board)), equity, 0);
+			assertEquals(cache.equityVsRandom(Cards.parse("AsKs"), Cards.parse("Qs7s2d")), equity, 0);
+		}
+	}
+
+	/**
+	 * Overwrites every slot of the closed 8 slot store with keys 1 to 8, all holding {@code value}. 
+	 */
+	private void plant(long value) throws IOException {
+		ByteBuffer slots = ByteBuffer.allocate(8 * 16).order(ByteOrder.nativeOrder()); 
+		for (long key = 1; key <= 8; key++) 
+			slots.putLong(key).putLong(value); 
+		slots.flip(); 
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.write(slots, 64); 
+		}
+	}
+
+	private static double result(long key) {
+		return key / 3.0 + 0.25; 
+	}
+}
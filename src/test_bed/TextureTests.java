@@ -0,0 +1,102 @@
+package test_bed;
+
+import static org.junit.Assert.*;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import abstraction.CanonicalHands;
+import game_components.Cards;
+import game_components.HandEvaluator;
+import game_components.HandEvaluator.HandType;
+import game_components.HandStrength;
+import game_components.Street;
+import texture.BoardTexture;
+import texture.FlopIndex;
+import texture.Texture;
+
+import static texture.Texture.*;
+
+public class TextureTests {
+
+	@Test
+	public void classifiesEachFlag() {
+		assertEquals(texture("8h5d2c"), RAINBOW.bit | LOW.bit);
+		assertEquals(texture("6h5d3c"), RAINBOW.bit | CONNECTED.bit | LOW.bit);
+		assertEquals(texture("9h5d2c"), RAINBOW.bit);
+		assertEquals(texture("KhKd7h"), PAIRED.bit | TWO_TONE.bit);
+		assertEquals(texture("7h7d7c"), PAIRED.bit | TRIPS.bit | RAINBOW.bit | LOW.bit);
+		assertEquals(texture("Js8s3s"), MONOTONE.bit);
+		assertEquals(texture("QhJd2c"), RAINBOW.bit | BROADWAY_HEAVY.bit);
+		assertEquals(texture("Ah4d3c"), RAINBOW.bit | CONNECTED.bit | ACE_HIGH.bit);
+		assertEquals(texture("AhKh9d2d"), TWO_TONE.bit | BROADWAY_HEAVY.bit | ACE_HIGH.bit);
+	}
+
+	@Test
+	public void flopIndexRoundTrip() throws IOException {
+		long[] flops = CanonicalHands.boards(Street.FLOP); 
+
+		//a hand written index file with each flop's real texture and made up features
+		Path file = Files.createTempFile("flops", ".index"); 
+		try {
+			try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+				out.writeInt(0x4E4C4654); 
+				out.writeInt(1); 
+				for (int id = 0; id < FlopIndex.FLOPS; id++) {
+					out.writeShort(BoardTexture.classify(flops[id])); 
+					out.writeInt(id * 7); 
+					out.writeFloat(id / 2f); 
+					out.writeFloat(-id); 
+				}
+			}
+
+			FlopIndex index = FlopIndex.read(file); 
+			int id = index.id(Cards.parse("AhKh2h")); 
+			assertEquals(id, 275);
+			assertEquals(index.id(Cards.parse("AsKs2s")), id);
+			assertEquals(index.flop(id), CanonicalHands.canonicalBoard(Cards.parse("AhKh2h")));
+			assertTrue(index.is(id, MONOTONE));
+			assertEquals(index.nuts(id), 275 * 7);
+			assertEquals(index.drawDensity(id), 137.5f, 0);
+
+			Path copy = Files.createTempFile("flops", ".index"); 
+			try {
+				index.write(copy); 
+				assertArrayEquals(Files.readAllBytes(copy), Files.readAllBytes(file));
+			} finally {
+				Files.delete(copy); 
+			}
+		} finally {
+			Files.delete(file); 
+		}
+	}
+
+	@Test
+	public void computesFlopFeatures() {
+		//QhJh makes the A high flush, and no two hearts make a straight flush without the Th
+		int nuts = FlopIndex.computeNuts(Cards.parse("AhKh2h")); 
+		assertEquals(HandStrength.handType(nuts), HandType.FLUSH);
+		assertEquals(HandStrength.rank(nuts, 0), 14);
+		assertEquals(nuts, HandEvaluator.evaluateStrength(Cards.parse("AhKhQhJh2h")));
+		assertEquals(FlopIndex.computeNuts(Cards.parse("AsKs2s")), nuts);
+		assertEquals(HandStrength.handType(FlopIndex.computeNuts(Cards.parse("Kd7c2h"))), HandType.TRIPS);
+
+		//rainbow and too spread out for an open ender, and no set has 8 outs to fill up
+		assertEquals(FlopIndex.computeDrawDensity(Cards.parse("Kd7c2h")), 0f, 0);
+		float wet = FlopIndex.computeDrawDensity(Cards.parse("Th9h8d")); 
+		assertTrue(wet > 0.1f);
+		assertTrue(FlopIndex.computeDrawDensity(Cards.parse("Jh9h8h")) > wet);
+
+		float dry = FlopIndex.computeEquitySpread(Cards.parse("Kd7c2h")); 
+		assertTrue(dry > 0 && dry < 0.5f);
+		assertEquals(FlopIndex.computeEquitySpread(Cards.parse("Ks7d2c")), dry, 1e-6);
+	}
+
+	private static int texture(String board) {
+		return BoardTexture.classify(Cards.parse(board)); 
+	}
+}
@@ -0,0 +1,63 @@
+package texture;
+
+import game_components.Card;
+import game_components.Cards;
+
+/**
+ * Classifies boards of any size into {@link Texture} flags using only rank and suit masks. 
+ * 
+ * @author Patrick Wamsley
+ */
+public final class BoardTexture {
+
+	private static final int BROADWAY = 0x1F00, ABOVE_EIGHT = 0x1F80, WHEEL = 0x100F; 
+
+	private BoardTexture() {}
+
+	public static int classify(long board) {
+
+		int texture = 0; 
+		int ranks = 0, suits = 0, pairs = 0, trips = 0; 
+		for (int s = 0; s < 4; s++) {
+			int suitRanks = Cards.suitRanks(board, s); 
+			if (suitRanks != 0) 
+				suits++; 
+			if (Integer.bitCount(suitRanks) == Long.bitCount(board)) 
+				texture |= Texture.MONOTONE.bit; 
+			trips |= pairs & suitRanks; 
+			pairs |= ranks & suitRanks; 
+			ranks |= suitRanks; 
+		}
+
+		if (pairs != 0) 
+			texture |= Texture.PAIRED.bit; 
+		if (trips != 0) 
+			texture |= Texture.TRIPS.bit; 
+		if (suits == 2) 
+			texture |= Texture.TWO_TONE.bit; 
+		if (suits == Long.bitCount(board)) 
+			texture |= Texture.RAINBOW.bit; 
+		if (straightPossible(ranks)) 
+			texture |= Texture.CONNECTED.bit; 
+		if (Integer.bitCount(ranks & BROADWAY) >= 2) 
+			texture |= Texture.BROADWAY_HEAVY.bit; 
+		if ((ranks & ABOVE_EIGHT) == 0) 
+			texture |= Texture.LOW.bit; 
+		if (Integer.highestOneBit(ranks) == 1 << (Card.ACE - Card.TWO)) 
+			texture |= Texture.ACE_HIGH.bit; 
+
+		return texture; 
+	}
+
+	/**
+	 * True if some five rank window (the wheel included) holds at least three of these ranks. 
+	 */
+	static boolean straightPossible(int ranks) {
+		if (Integer.bitCount(ranks & WHEEL) >= 3) 
+			return true; 
+		for (int low = 0; low <= 8; low++) 
+			if (Integer.bitCount(ranks & 0x1F << low) >= 3) 
+				return true; 
+		return false; 
+	}
+}
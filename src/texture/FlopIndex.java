@@ -0,0 +1,254 @@
+package texture;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import abstraction.CanonicalHands;
+import abstraction.RiverEquity;
+import game_components.Cards;
+import game_components.HandEvaluator;
+import game_components.HandEvaluator.HandType;
+import game_components.HandStrength;
+import game_components.Street;
+
+/**
+ * A read-only table of features for each of the 1,755 strategically distinct flops. 
+ * 
+ * Flops are identified by their position in {@link CanonicalHands#boards(Street)}. Any flop maps to 
+ * its canonical id with {@link #id(long)}, a single array lookup by the flop's combinatorial index, 
+ * and the features are stored column-wise so queries over many flops stay cache friendly. 
+ * 
+ * Building the table values every hole on every runout of every flop, so it is done once, in parallel, 
+ * and can be saved with {@link #write(Path)} and reloaded with {@link #read(Path)}. 
+ * 
+ * @author Patrick Wamsley
+ */
+public final class FlopIndex {
+
+	public static final int FLOPS = 1755; 
+
+	private static final int MAGIC = 0x4E4C4654, VERSION = 1; 
+	private static final int ALL_FLOPS = 52 * 51 * 50 / 6; 
+
+	/** Draws need at least this many of the 47 turn cards to make a straight or better. */
+	static final int DRAW_OUTS = 8; 
+
+	private final long[] flops; 
+	private final short[] textures; 
+	private final int[] nuts; 
+	private final float[] drawDensity; 
+	private final float[] equitySpread; 
+
+	private final short[] idByIndex = new short[ALL_FLOPS]; 
+
+	private FlopIndex(long[] flops, short[] textures, int[] nuts, float[] drawDensity, float[] equitySpread) {
+		this.flops = flops; 
+		this.textures = textures; 
+		this.nuts = nuts; 
+		this.drawDensity = drawDensity; 
+		this.equitySpread = equitySpread; 
+
+		for (long flop = Cards.firstSubset(3); flop <= Cards.FULL_DECK; flop = Cards.nextSubset(flop)) 
+			idByIndex[index(flop)] = (short) Arrays.binarySearch(flops, CanonicalHands.canonicalBoard(flop)); 
+	}
+
+	/**
+	 * Computes every flop's features in parallel. 
+	 */
+	public static FlopIndex build() {
+
+		long[] flops = CanonicalHands.boards(Street.FLOP); 
+		short[] textures = new short[FLOPS]; 
+		int[] nuts = new int[FLOPS]; 
+		float[] drawDensity = new float[FLOPS], equitySpread = new float[FLOPS]; 
+
+		ThreadLocal<RiverEquity> equity = ThreadLocal.withInitial(RiverEquity::new); 
+		IntStream.range(0, FLOPS).parallel().forEach(id -> {
+			long flop = flops[id]; 
+			textures[id] = (short) BoardTexture.classify(flop); 
+			nuts[id] = computeNuts(flop); 
+			drawDensity[id] = computeDrawDensity(flop); 
+			equitySpread[id] = equitySpread(flop, equity.get()); 
+		}); 
+
+		return new FlopIndex(flops, textures, nuts, drawDensity, equitySpread); 
+	}
+
+	/**
+	 * Returns the id of a flop's canonical form, in 0..{@value #FLOPS} - 1. 
+	 */
+	public int id(long flop) {
+		if (Long.bitCount(flop) != 3) 
+			throw new IllegalArgumentException("Flops have 3 cards"); 
+		return idByIndex[index(flop)]; 
+	}
+
+	/**
+	 * The canonical flop with this id, as a card mask. 
+	 */
+	public long flop(int id) {
+		return flops[id]; 
+	}
+
+	/**
+	 * The flop's {@link Texture} flags. 
+	 */
+	public int texture(int id) {
+		return textures[id]; 
+	}
+
+	public boolean is(int id, Texture texture) {
+		return texture.in(textures[id]); 
+	}
+
+	/**
+	 * Packed strength of the best hand any two hole cards make on the flop. 
+	 * 
+	 * @see HandStrength
+	 */
+	public int nuts(int id) {
+		return nuts[id]; 
+	}
+
+	/**
+	 * Fraction of hole pairs that aren't yet a straight or better but have at least 
+	 * {@value #DRAW_OUTS} turn cards that make one. 
+	 */
+	public float drawDensity(int id) {
+		return drawDensity[id]; 
+	}
+
+	/**
+	 * Standard deviation, over all hole pairs, of their equity against a random hand. 
+	 * Low spreads are boards where holdings run close together. 
+	 */
+	public float equitySpread(int id) {
+		return equitySpread[id]; 
+	}
+
+	public void write(Path file) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+			out.writeInt(MAGIC); 
+			out.writeInt(VERSION); 
+			for (int id = 0; id < FLOPS; id++) {
+				out.writeShort(textures[id]); 
+				out.writeInt(nuts[id]); 
+				out.writeFloat(drawDensity[id]); 
+				out.writeFloat(equitySpread[id]); 
+			}
+		}
+	}
+
+	public static FlopIndex read(Path file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) 
+				throw new IOException("Not a version " + VERSION + " flop index"); 
+
+			short[] textures = new short[FLOPS]; 
+			int[] nuts = new int[FLOPS]; 
+			float[] drawDensity = new float[FLOPS], equitySpread = new float[FLOPS]; 
+			for (int id = 0; id < FLOPS; id++) {
+				textures[id] = in.readShort(); 
+				nuts[id] = in.readInt(); 
+				drawDensity[id] = in.readFloat(); 
+				equitySpread[id] = in.readFloat(); 
+			}
+			return new FlopIndex(CanonicalHands.boards(Street.FLOP), textures, nuts, drawDensity, equitySpread); 
+		}
+	}
+
+	/**
+	 * Combinatorial number system index of a 3 card mask, in 0..22099. 
+	 */
+	private static int index(long flop) {
+		int c0 = Cards.lowestCard(flop), c2 = Cards.highestCard(flop); 
+		int c1 = Cards.lowestCard(flop & ~(1L << c0)); 
+		return c0 + c1 * (c1 - 1) / 2 + c2 * (c2 - 1) * (c2 - 2) / 6; 
+	}
+
+	/**
+	 * Computes {@link #nuts(int)} for any flop, canonical or not. 
+	 */
+	public static int computeNuts(long flop) {
+		int best = 0; 
+		for (int pair = 0; pair < Cards.HOLE_PAIRS; pair++) 
+			if ((Cards.pairMask(pair) & flop) == 0) 
+				best = Math.max(best, HandEvaluator.evaluateStrength(flop | Cards.pairMask(pair))); 
+		return best; 
+	}
+
+	/**
+	 * Computes {@link #drawDensity(int)} for any flop, canonical or not. 
+	 */
+	public static float computeDrawDensity(long flop) {
+
+		int straight = HandStrength.pack(HandType.STRAIGHT, 0); 
+		int holes = 0, draws = 0; 
+
+		for (int pair = 0; pair < Cards.HOLE_PAIRS; pair++) {
+			long hole = Cards.pairMask(pair); 
+			if ((hole & flop) != 0) 
+				continue; 
+			holes++; 
+
+			long cards = flop | hole; 
+			if (HandEvaluator.evaluateStrength(cards) >= straight) 
+				continue; 
+
+			int outs = 0; 
+			for (int turn = 0; turn < Cards.DECK_SIZE; turn++) 
+				if ((cards & 1L << turn) == 0 && HandEvaluator.evaluateStrength(cards | 1L << turn) >= straight) 
+					outs++; 
+			if (outs >= DRAW_OUTS) 
+				draws++; 
+		}
+		return (float) draws / holes; 
+	}
+
+	/**
+	 * Computes {@link #equitySpread(int)} for any flop, canonical or not. 
+	 */
+	public static float computeEquitySpread(long flop) {
+		return equitySpread(flop, new RiverEquity()); 
+	}
+
+	private static float equitySpread(long flop, RiverEquity equity) {
+
+		float[] river = new float[Cards.HOLE_PAIRS]; 
+		double[] sum = new double[Cards.HOLE_PAIRS]; 
+		int[] runouts = new int[Cards.HOLE_PAIRS]; 
+
+		int[] live = Cards.liveCards(flop); 
+		long end = 1L << live.length; 
+		for (long packed = Cards.firstSubset(2); packed < end; packed = Cards.nextSubset(packed)) {
+			long runout = Cards.expand(packed, live); 
+			equity.compute(flop | runout, river, 0); 
+			for (int pair = 0; pair < Cards.HOLE_PAIRS; pair++) {
+				if ((Cards.pairMask(pair) & (flop | runout)) == 0) {
+					sum[pair] += river[pair]; 
+					runouts[pair]++; 
+				}
+			}
+		}
+
+		double total = 0, squares = 0; 
+		int holes = 0; 
+		for (int pair = 0; pair < Cards.HOLE_PAIRS; pair++) {
+			if (runouts[pair] == 0) 
+				continue; 
+			double mean = sum[pair] / runouts[pair]; 
+			total += mean; 
+			squares += mean * mean; 
+			holes++; 
+		}
+		double average = total / holes; 
+		return (float) Math.sqrt(squares / holes - average * average); 
+	}
+}
@@ -0,0 +1,36 @@
+package texture;
+
+/**
+ * Flags describing a board's texture. A board's texture is an {@code int} with bit {@code ordinal()} 
+ * set for each flag that applies. 
+ * 
+ * @see BoardTexture#classify(long)
+ * @author Patrick Wamsley
+ */
+public enum Texture {
+
+	/** At least two cards share a rank. */
+	PAIRED, 
+	/** Three cards share a rank. */
+	TRIPS, 
+	/** Every card is one suit. */
+	MONOTONE, 
+	/** Exactly two suits. */
+	TWO_TONE, 
+	/** No two cards share a suit. */
+	RAINBOW, 
+	/** Three distinct ranks fit in a straight, so a straight is possible. */
+	CONNECTED, 
+	/** At least two cards are ten or higher. */
+	BROADWAY_HEAVY, 
+	/** No card above eight. */
+	LOW, 
+	/** The highest card is an ace. */
+	ACE_HIGH; 
+
+	public final int bit = 1 << ordinal(); 
+
+	public boolean in(int texture) {
+		return (texture & bit) != 0; 
+	}
+}